@@ -1,15 +1,25 @@
 package elements;
 
-import com.codeborne.selenide.Condition;
-import com.codeborne.selenide.Selenide;
 import com.codeborne.selenide.SelenideElement;
-import com.codeborne.selenide.WebElementCondition;
-import com.codeborne.selenide.ex.ElementNotFound;
+import com.codeborne.selenide.WebDriverRunner;
+import elements.locators.Locator;
+import elements.locators.LocatorCompiler;
+import elements.waits.DomEventWaiter;
+import elements.waits.LocatorTimeouts;
+import elements.waits.WaitScheduler;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import utils.Deadline;
+import utils.capture.FailureArtifacts;
 import utils.exceptions.ElementNotVisibleException;
+import utils.trace.Tracer;
 import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 import static com.codeborne.selenide.Selenide.*;
 
@@ -17,24 +27,30 @@ import static com.codeborne.selenide.Selenide.*;
 /**
  * Абстрактный базовый класс для представления веб-элементов.
  * Этот класс предоставляет методы для работы с веб-элементами с использованием Selenide.
+ * Элементы описываются XPath выражениями, которые при создании элемента компилируются в более быстрый
+ * способ поиска (см. {@link LocatorCompiler}). Найденный в браузере элемент используется повторно в пределах
+ * жизненного цикла страницы (см. {@link ElementCache}).
  */
 abstract public class BaseElement {
 
     /**
      * Веб-элемент, логику взаимодействия с которым реализует класс
      */
-    protected final SelenideElement baseElement;
+    protected SelenideElement baseElement;
     protected final String xPath;
+    private Locator locator;
+    private WebElement cachedElement;
+    private long cachedGeneration;
 
     /**
      * Общие XPath шаблоны для различных типов HTML элементов
      */
     protected static final String CLASS_XPATH = "//%s[@class='%s']";
     protected static final String CLASS_AND_NAME_XPATH = "//%s[@class='%s'][@name='%s']";
+    protected static final String CLASS_AND_TYPE_XPATH = "//%s[@class='%s'][@type='%s']";
 
-    private final static int LOAD_WAIT_SECONDS = 10;
-    private final static int POLLING_SECONDS = 1;
-    private final static WebElementCondition VISIBLE_CONDITION = Condition.visible;
+    private final static Duration DEFAULT_LOAD_WAIT = Duration.ofSeconds(10);
+    private final static int POLLING_MILLIS = 200;
     private static final Logger logger = LogManager.getLogger();
 
     /**
@@ -43,8 +59,9 @@ abstract public class BaseElement {
      * @param fullXpath Полное XPath выражение для нахождения элемента.
      */
     protected BaseElement(String fullXpath) {
-        this.baseElement = $x(fullXpath);
         this.xPath = fullXpath;
+        this.locator = LocatorCompiler.compile(fullXpath);
+        this.baseElement = locator.element();
     }
 
     /**
@@ -72,31 +89,159 @@ abstract public class BaseElement {
     }
 
     /**
-     * Ожидает, пока заданное условие станет истинным для baseElement
+     * Возвращает XPath выражение, по которому находится элемент.
+     *
+     * @return XPath выражение элемента.
+     */
+    public String getXPath() {
+        return xPath;
+    }
+
+    /**
+     * Возвращает селектор элемента для скриптов страницы: CSS селектор или XPath, если перевод в CSS невозможен.
+     *
+     * @return селектор элемента.
+     */
+    public String getSelector() {
+        return locator.query();
+    }
+
+    /**
+     * Ограничивает поиск элемента корневым контейнером страницы.
+     *
+     * @param containerCss CSS селектор контейнера.
+     * @return этот же элемент.
+     * @param <T> класс элемента.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends BaseElement> T within(String containerCss) {
+        locator = locator.within(containerCss);
+        baseElement = locator.element();
+        cachedElement = null;
+        return (T) this;
+    }
+
+    /**
+     * Ожидает, пока элемент станет видимым.
+     * Видимость ожидается по событиям DOM (см. {@link DomEventWaiter}), если это невозможно,
+     * оставшееся время проверяется опросом через общий планировщик (см. {@link WaitScheduler}): между
+     * проверками вызывающий поток не занят опросом. Время ожидания не превышает оставшееся время
+     * теста (см. {@link Deadline}).
      *
      * @param timeout   Время ожидания.
      * @param polling   Период опроса.
-     * @param condition Условие для проверки.
-     * @return true, если условие выполнено, иначе false.
-     */
-    private boolean waitUntilIsTrueCondition(
-            Duration timeout,
-            Duration polling,
-            WebElementCondition condition
-    ) {
-        try {Selenide.Wait()
-                    .withTimeout(timeout)
-                    .pollingEvery(polling)
-                    .until(webDriver -> baseElement.shouldBe(condition));
-            logger.info("Condition " + condition.toString() + " for " + baseElement + " completed in "
-                    + timeout.getSeconds() +" seconds");
-            return true;
-        } catch (TimeoutException | ElementNotFound e) {
-            logger.warn(String.format("Condition not met for %d seconds", timeout.getSeconds()));
-            return false;
+     * @return true, если элемент стал видимым, иначе false.
+     */
+    private boolean waitUntilVisible(Duration timeout, Duration polling) {
+        try (Tracer.Span span = Tracer.span(Tracer.WAIT, "visible", xPath)) {
+            long startNanos = System.nanoTime();
+            timeout = Deadline.bound(timeout);
+            Optional<Boolean> eventResult = DomEventWaiter.awaitVisible(getSelector(), timeout, this::cache);
+            if (eventResult.isPresent()) {
+                onWaitFinished(eventResult.get(), startNanos);
+                return eventResult.get();
+            }
+            Duration remaining = timeout.minusNanos(System.nanoTime() - startNanos);
+            WebDriver driver = WebDriverRunner.getWebDriver();
+            Optional<WebElement> visibleElement = WaitScheduler.await(WaitScheduler.poll(
+                    () -> locator.findFirst(driver).filter(WebElement::isDisplayed), remaining, polling));
+            visibleElement.ifPresent(this::cache);
+            onWaitFinished(visibleElement.isPresent(), startNanos);
+            return visibleElement.isPresent();
+        }
+    }
+
+    /**
+     * Возвращает веб-элемент: из кеша, если он найден в текущем жизненном цикле страницы, иначе находит его
+     * в браузере и запоминает.
+     *
+     * @return найденный веб-элемент.
+     */
+    private WebElement element() {
+        if (cachedElement != null && cachedGeneration == ElementCache.generation()) {
+            ElementCache.recordHit();
+            return cachedElement;
+        }
+        ElementCache.recordMiss();
+        WebElement element = baseElement.toWebElement();
+        cache(element);
+        return element;
+    }
+
+    /**
+     * Запоминает найденный веб-элемент до конца жизненного цикла страницы.
+     *
+     * @param element найденный веб-элемент.
+     */
+    private void cache(WebElement element) {
+        if (ElementCache.isEnabled()) {
+            cachedElement = element;
+            cachedGeneration = ElementCache.generation();
+        }
+    }
+
+    /**
+     * Выполняет действие с веб-элементом. Если элемент устарел (страница перерисована или сменилась),
+     * начинает новый жизненный цикл страницы, находит элемент заново и повторяет действие один раз.
+     *
+     * @param action действие с элементом.
+     */
+    protected void perform(Consumer<WebElement> action) {
+        read(element -> {
+            action.accept(element);
+            return null;
+        });
+    }
+
+    /**
+     * Получает значение из веб-элемента, при устаревшем элементе находит его заново (см. {@link #perform}).
+     *
+     * @param query получение значения.
+     * @return значение.
+     * @param <R> тип значения.
+     */
+    protected <R> R read(Function<WebElement, R> query) {
+        try {
+            return query.apply(element());
+        } catch (StaleElementReferenceException e) {
+            logger.debug("Element {} is stale, looking it up again", xPath);
+            ElementCache.recordStale();
+            return query.apply(element());
         }
     }
 
+    /**
+     * Логирует результат ожидания, запоминает время появления элемента для адаптивного таймаута
+     * и учитывает время ожидания во времени теста. Если условие не выполнено потому, что время теста
+     * исчерпано, выбрасывает {@link utils.exceptions.DeadlineExceededException}.
+     *
+     * @param isMet     выполнено ли условие.
+     * @param startNanos время начала ожидания.
+     */
+    private void onWaitFinished(boolean isMet, long startNanos) {
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+        long elapsedMillis = elapsed.toMillis();
+        if (isMet) {
+            LocatorTimeouts.record(xPath, elapsed);
+        }
+        Deadline.record("wait " + xPath, startNanos);
+        if (isMet) {
+            logger.info("Condition visible for {} completed in {} ms", baseElement, elapsedMillis);
+        } else {
+            logger.warn("Condition not met for {} ms", elapsedMillis);
+            Deadline.check();
+        }
+    }
+
+    /**
+     * Таймаут ожидания появления элемента, вычисленный по истории его появлений (см. {@link LocatorTimeouts}).
+     *
+     * @return таймаут ожидания.
+     */
+    private Duration loadWaitTimeout() {
+        return LocatorTimeouts.timeoutFor(xPath, DEFAULT_LOAD_WAIT);
+    }
+
     /**
      * Ожидает, пока элемент станет видимым.
      * Если элемент не стал видимым в течение установленного времени, выбрасывает исключение.
@@ -105,8 +250,7 @@ abstract public class BaseElement {
      * @throws ElementNotVisibleException если элемент не стал видимым в течение установленного времени.
      */
     protected void waitVisible() {
-        if (!waitUntilIsTrueCondition(Duration.ofSeconds(LOAD_WAIT_SECONDS), Duration.ofSeconds(POLLING_SECONDS)
-                , VISIBLE_CONDITION)) {
+        if (!waitUntilVisible(loadWaitTimeout(), Duration.ofMillis(POLLING_MILLIS))) {
             throw new ElementNotVisibleException("Element has not appeared on the page within the set time period: "
                     + baseElement);
         }
@@ -117,19 +261,21 @@ abstract public class BaseElement {
      * Вынесен в BaseElement, так как используются не только в Button но и в Input
      */
     public void click() {
-        waitVisible();
-        baseElement.click();
+        try (Tracer.Span span = Tracer.span(Tracer.ELEMENT, "click", xPath)) {
+            waitVisible();
+            FailureArtifacts.capture("click " + xPath);
+            perform(WebElement::click);
+        }
     }
 
     /**
-     * Проверка отображается ли элемент на странице. Вызывает waitUntilIsTrueCondition со стандартными параметрами,
-     * заданными в константах и условием visible (элемент виден)
+     * Проверка отображается ли элемент на странице. Вызывает waitUntilVisible с адаптивным таймаутом
+     * элемента
      *
      * @return - true, если элемент отображается, иначе false
      */
     public boolean isDisplayed() {
-        return waitUntilIsTrueCondition(Duration.ofSeconds(LOAD_WAIT_SECONDS),
-                        Duration.ofSeconds(POLLING_SECONDS), VISIBLE_CONDITION);
+        return waitUntilVisible(loadWaitTimeout(), Duration.ofMillis(POLLING_MILLIS));
     }
 
     /**
@@ -138,8 +284,10 @@ abstract public class BaseElement {
      * @return - текст веб-элемента
      */
     public String getText() {
-        waitVisible();
-        return baseElement.text();
+        try (Tracer.Span span = Tracer.span(Tracer.ELEMENT, "getText", xPath)) {
+            waitVisible();
+            return read(WebElement::getText);
+        }
     }
 
 }
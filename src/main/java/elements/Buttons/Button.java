@@ -18,6 +18,15 @@ public class Button extends BaseElement {
         super(xPath, param, BUTTON_TAG);
     }
 
+    /**
+     * Приватный конструктор Button с полным XPath выражением.
+     *
+     * @param fullXpath Полное XPath выражение для нахождения элемента.
+     */
+    private Button(String fullXpath) {
+        super(fullXpath);
+    }
+
     /**
      * Защищенный конструктор Button с указанным XPath, атрибутом и HTML тегом.
      *
@@ -38,4 +47,15 @@ public class Button extends BaseElement {
     public static Button byClass(String className) {
         return new Button(CLASS_XPATH, className);
     }
+
+    /**
+     * Создает экземпляр Button на основе имени класса и типа кнопки.
+     *
+     * @param className Имя класса.
+     * @param type Тип кнопки (button, submit, reset).
+     * @return Экземпляр Button.
+     */
+    public static Button byClassAndType(String className, String type) {
+        return new Button(String.format(CLASS_AND_TYPE_XPATH, BUTTON_TAG, className, type));
+    }
 }
@@ -0,0 +1,88 @@
+package elements;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utils.Config;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Жизненный цикл страницы для кеша найденных элементов и счётчики использования кеша.
+ * Элемент находится в браузере один раз и используется повторно, пока в потоке не сменилась страница:
+ * переход по адресу, создание нового объекта страницы или устаревание любого элемента
+ * (StaleElementReferenceException) начинают новый жизненный цикл, и все элементы потока находятся заново.
+ * Попадание в кеш экономит один вызов WebDriver. Отключить кеш: element.cache=false.
+ */
+public final class ElementCache {
+    private static final String ENABLED_PROPERTY = "element.cache";
+    private static final boolean enabled = Config.getBoolean(ENABLED_PROPERTY, true);
+    private static final AtomicLong generations = new AtomicLong();
+    private static final ThreadLocal<Long> currentGeneration =
+            ThreadLocal.withInitial(generations::incrementAndGet);
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+    private static final LongAdder staleRefreshes = new LongAdder();
+    private static final Logger logger = LogManager.getLogger();
+
+    private ElementCache() {
+    }
+
+    /**
+     * Начинает новый жизненный цикл страницы в текущем потоке: найденные ранее элементы больше не используются.
+     */
+    public static void invalidate() {
+        currentGeneration.set(generations.incrementAndGet());
+    }
+
+    /**
+     * @return число обращений к элементам, обслуженных из кеша без поиска в браузере.
+     */
+    public static long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return число поисков элементов в браузере.
+     */
+    public static long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return число повторных поисков из-за устаревших элементов.
+     */
+    public static long staleRefreshes() {
+        return staleRefreshes.sum();
+    }
+
+    /**
+     * Выводит в лог счётчики кеша, накопленные с начала запуска.
+     */
+    public static void logStatistics() {
+        long total = hits() + misses();
+        logger.info("element cache: {} hits, {} misses, {} stale refreshes, hit rate {}%", hits(), misses(),
+                staleRefreshes(), total == 0 ? 0 : hits() * 100 / total);
+    }
+
+    static boolean isEnabled() {
+        return enabled;
+    }
+
+    static long generation() {
+        return currentGeneration.get();
+    }
+
+    static void recordHit() {
+        hits.increment();
+    }
+
+    static void recordMiss() {
+        misses.increment();
+    }
+
+    static void recordStale() {
+        staleRefreshes.increment();
+        invalidate();
+    }
+}
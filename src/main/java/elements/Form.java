@@ -0,0 +1,81 @@
+package elements;
+
+import com.codeborne.selenide.Selenide;
+import elements.Buttons.Button;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utils.Scripts;
+import utils.capture.FailureArtifacts;
+import utils.exceptions.ElementNotVisibleException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Класс Form представляет форму из полей ввода и кнопки отправки.
+ * Заполняет все поля и отправляет форму одним вызовом WebDriver: значения устанавливаются скриптом
+ * с отправкой событий input и change, без посимвольного ввода. Для проверки работы с клавиатурой
+ * следует использовать методы Input и действия с клавишами.
+ */
+public class Form {
+    private static final String FORM_SUBMIT_SCRIPT = "form-submit.js";
+    private static final Logger logger = LogManager.getLogger();
+
+    private final Button submitButton;
+    private final Map<Input, String> values = new LinkedHashMap<>();
+
+    /**
+     * Приватный конструктор Form с указанной кнопкой отправки.
+     *
+     * @param submitButton кнопка отправки формы.
+     */
+    private Form(Button submitButton) {
+        this.submitButton = submitButton;
+    }
+
+    /**
+     * Создает форму, отправляемую указанной кнопкой.
+     *
+     * @param submitButton кнопка отправки формы.
+     * @return экземпляр Form.
+     */
+    public static Form submittedBy(Button submitButton) {
+        return new Form(submitButton);
+    }
+
+    /**
+     * Задаёт значение поля формы.
+     *
+     * @param input поле ввода.
+     * @param value значение поля.
+     * @return эта же форма.
+     */
+    public Form with(Input input, String value) {
+        values.put(input, value);
+        return this;
+    }
+
+    /**
+     * Ждёт появления кнопки отправки, затем заполняет все поля и нажимает кнопку одним скриптом.
+     *
+     * @throws ElementNotVisibleException если какое-либо поле или кнопка отсутствует на странице.
+     */
+    public void submit() {
+        submitButton.waitVisible();
+        FailureArtifacts.capture("submit " + submitButton.getXPath());
+        List<String> inputSelectors = new ArrayList<>();
+        List<String> inputValues = new ArrayList<>();
+        values.forEach((input, value) -> {
+            inputSelectors.add(input.getSelector());
+            inputValues.add(value);
+        });
+        List<String> missing = Selenide.executeJavaScript(Scripts.load(FORM_SUBMIT_SCRIPT), inputSelectors,
+                inputValues, submitButton.getSelector());
+        if (missing != null && !missing.isEmpty()) {
+            throw new ElementNotVisibleException("Form elements are not present on the page: " + missing);
+        }
+        logger.info("form with {} fields submitted by {}", values.size(), submitButton.getXPath());
+    }
+}
@@ -1,5 +1,8 @@
 package elements;
 
+import utils.capture.FailureArtifacts;
+import utils.trace.Tracer;
+
 /**
  * Класс Input представляет текстовое поле на веб-странице и предоставляет методы для взаимодействия с ним.
  */
@@ -33,8 +36,14 @@ public class Input extends BaseElement {
      * @param value - текст для заполнения
      */
     public void fill(String value) {
-        waitVisible();
-        baseElement.setValue(value);
+        try (Tracer.Span span = Tracer.span(Tracer.ELEMENT, "fill", xPath)) {
+            waitVisible();
+            FailureArtifacts.capture("fill " + xPath);
+            perform(element -> {
+                element.clear();
+                element.sendKeys(value);
+            });
+        }
     }
 
     /**
@@ -43,8 +52,10 @@ public class Input extends BaseElement {
      * @return текстовое значение из поля ввода.
      */
     public String getInputText() {
-        waitVisible();
-        return baseElement.getValue();
+        try (Tracer.Span span = Tracer.span(Tracer.ELEMENT, "getInputText", xPath)) {
+            waitVisible();
+            return read(element -> element.getDomProperty("value"));
+        }
     }
 
     /**
@@ -0,0 +1,98 @@
+package elements.locators;
+
+import com.codeborne.selenide.Selenide;
+import com.codeborne.selenide.SelenideElement;
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+
+import java.util.Optional;
+
+/**
+ * Скомпилированный способ поиска элемента (см. {@link LocatorCompiler}).
+ *
+ * @param strategy способ поиска.
+ * @param value идентификатор, имя, CSS селектор или XPath, в зависимости от способа.
+ * @param xPath исходное XPath выражение элемента.
+ * @param rootCss CSS селектор корневого контейнера страницы, внутри которого ищется элемент, или null.
+ */
+public record Locator(Strategy strategy, String value, String xPath, String rootCss) {
+
+    /**
+     * Способ поиска элемента, от самого быстрого к самому медленному.
+     */
+    public enum Strategy {
+        ID, NAME, CSS, XPATH
+    }
+
+    /**
+     * Возвращает способ поиска для WebDriver.
+     *
+     * @return By для поиска элемента.
+     */
+    public By by() {
+        return switch (strategy) {
+            case ID -> By.id(value);
+            case NAME -> By.name(value);
+            case CSS -> By.cssSelector(value);
+            case XPATH -> By.xpath(value);
+        };
+    }
+
+    /**
+     * Возвращает селектор для скриптов страницы: CSS селектор или, если перевод в CSS невозможен, XPath.
+     * Скрипты отличают XPath по начальному символу / или (.
+     *
+     * @return CSS селектор или XPath выражение.
+     */
+    public String query() {
+        String css = switch (strategy) {
+            case ID -> "#" + LocatorCompiler.escapeIdentifier(value);
+            case NAME -> "[name=\"" + LocatorCompiler.escapeString(value) + "\"]";
+            case CSS -> value;
+            case XPATH -> null;
+        };
+        if (css == null) {
+            return xPath;
+        }
+        return rootCss == null ? css : rootCss + " " + css;
+    }
+
+    /**
+     * Возвращает элемент Selenide, который ищется этим способом (внутри корневого контейнера, если он задан).
+     *
+     * @return ленивый элемент Selenide.
+     */
+    public SelenideElement element() {
+        return rootCss == null || strategy == Strategy.XPATH
+                ? Selenide.$(by()) : Selenide.$(By.cssSelector(rootCss)).$(by());
+    }
+
+    /**
+     * Находит первый подходящий элемент явно переданным WebDriver, без элемента Selenide и его ожиданий.
+     * Используется там, где поиск выполняется не в потоке, которому принадлежит браузер.
+     *
+     * @param context WebDriver или элемент, внутри которого выполняется поиск.
+     * @return первый найденный элемент или пустой Optional.
+     */
+    public Optional<WebElement> findFirst(SearchContext context) {
+        By lookup = rootCss == null || strategy == Strategy.XPATH ? by() : By.cssSelector(query());
+        return context.findElements(lookup).stream().findFirst();
+    }
+
+    /**
+     * Возвращает способ поиска внутри корневого контейнера страницы. Поиск по XPath не ограничивается,
+     * так как исходное выражение ищет от корня документа.
+     *
+     * @param containerCss CSS селектор контейнера.
+     * @return способ поиска внутри контейнера.
+     */
+    public Locator within(String containerCss) {
+        return new Locator(strategy, value, xPath, containerCss);
+    }
+
+    @Override
+    public String toString() {
+        return strategy + " " + query();
+    }
+}
@@ -0,0 +1,86 @@
+package elements.locators;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import utils.Scripts;
+import utils.driver.DriverFactory;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Микробенчмарк способов поиска элементов на синтетическом DOM растущего размера.
+ * Для XPath выражений элементов страницы входа сравнивает исходный поиск по XPath, скомпилированный
+ * способ (см. {@link LocatorCompiler}) и поиск внутри корневого контейнера страницы. Время поиска внутри
+ * страницы замеряется скриптом, время поиска через WebDriver - по findElement. Размеры DOM задаются
+ * аргументами (по умолчанию 1000, 10000 и 50000 элементов), браузер запускается без окна.
+ */
+public final class LocatorBenchmark {
+    private static final String HEADLESS_PROPERTY = "config.headless";
+    private static final String SYNTHETIC_DOM_SCRIPT = "synthetic-dom.js";
+    private static final String BENCHMARK_SCRIPT = "locator-benchmark.js";
+    private static final String PAGE_ROOT = "#page-root";
+    private static final String BLANK_PAGE = "data:text/html;charset=utf-8,<html><body></body></html>";
+    private static final int SCRIPT_ITERATIONS = 200;
+    private static final int DRIVER_ITERATIONS = 20;
+    private static final List<Integer> DEFAULT_SIZES = List.of(1000, 10000, 50000);
+    private static final List<String> X_PATHS = List.of(
+            "//input[@class='mira-widget-login-input mira-default-login-page-text-input'][@name='password']",
+            "//button[@class='mira-widget-login-button mira-default-login-page-button-submit']",
+            "//div[@class='avatar-full-name']");
+    private static final Logger logger = LogManager.getLogger();
+
+    private LocatorBenchmark() {
+    }
+
+    /**
+     * Запускает замер.
+     *
+     * @param args размеры синтетического DOM.
+     */
+    public static void main(String[] args) {
+        if (System.getProperty(HEADLESS_PROPERTY) == null) {
+            System.setProperty(HEADLESS_PROPERTY, "true");
+        }
+        List<Integer> sizes = args.length == 0 ? DEFAULT_SIZES : Arrays.stream(args).map(Integer::valueOf).toList();
+        WebDriver driver = DriverFactory.create();
+        try {
+            StringBuilder report = new StringBuilder(String.format("%n%8s  %-6s %-100s %12s %12s %12s",
+                    "nodes", "kind", "selector", "page us", "scoped us", "driver ms"));
+            for (int size : sizes) {
+                driver.get(BLANK_PAGE);
+                long nodes = ((Number) ((JavascriptExecutor) driver).executeScript(
+                        Scripts.load(SYNTHETIC_DOM_SCRIPT), size)).longValue();
+                for (String xPath : X_PATHS) {
+                    Locator xPathLocator = new Locator(Locator.Strategy.XPATH, xPath, xPath, null);
+                    Locator compiled = LocatorCompiler.compile(xPath);
+                    report.append(row(driver, nodes, "xpath", xPathLocator));
+                    report.append(row(driver, nodes, compiled.strategy().name().toLowerCase(), compiled));
+                    report.append(row(driver, nodes, "scoped", compiled.within(PAGE_ROOT)));
+                }
+            }
+            logger.info("locator benchmark:{}", report);
+        } finally {
+            DriverFactory.dispose(driver);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String row(WebDriver driver, long nodes, String kind, Locator locator) {
+        Map<String, Object> pageResult = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(
+                Scripts.load(BENCHMARK_SCRIPT), locator.strategy() == Locator.Strategy.XPATH
+                        ? locator.xPath() : locator.query(), locator.rootCss(), SCRIPT_ITERATIONS);
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < DRIVER_ITERATIONS; i++) {
+            locator.findFirst(driver).orElseThrow(() -> new IllegalStateException("Not found: " + locator));
+        }
+        double driverMillis = (System.nanoTime() - startNanos) / 1_000_000.0 / DRIVER_ITERATIONS;
+        Object scoped = pageResult.get("scoped");
+        return String.format("%n%8d  %-6s %-100s %12.2f %12s %12.2f", nodes, kind, locator.query(),
+                ((Number) pageResult.get("document")).doubleValue(),
+                scoped == null ? "-" : String.format("%.2f", ((Number) scoped).doubleValue()), driverMillis);
+    }
+}
@@ -0,0 +1,103 @@
+package elements.locators;
+
+import utils.Config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Переводит XPath выражения элементов в более быстрые способы поиска.
+ * Поддерживаются выражения вида //tag[@attr='значение'][@attr2='значение'], из которых строятся шаблоны
+ * CLASS_XPATH и CLASS_AND_NAME_XPATH. Единственное условие на id или name без тега даёт поиск по id или name,
+ * остальные условия переводятся в CSS селектор. Условие на class переводится в набор CSS классов, поэтому
+ * элемент находится и при появлении у него дополнительных классов; локатор элемента, классы которого входят
+ * в классы другого элемента, должен отличать его другими атрибутами. Выражения другого вида, а также все
+ * выражения при locator.compile=false, ищутся по XPath без изменений.
+ */
+public final class LocatorCompiler {
+    private static final String COMPILE_PROPERTY = "locator.compile";
+    private static final Pattern PATH_PATTERN =
+            Pattern.compile("^//([A-Za-z][\\w-]*|\\*)((?:\\[@[\\w-]+=(?:'[^']*'|\"[^\"]*\")])*)$");
+    private static final Pattern PREDICATE_PATTERN = Pattern.compile("\\[@([\\w-]+)=(?:'([^']*)'|\"([^\"]*)\")]");
+    private static final String ANY_TAG = "*";
+    private static final boolean enabled = Config.getBoolean(COMPILE_PROPERTY, true);
+
+    private LocatorCompiler() {
+    }
+
+    /**
+     * Компилирует XPath выражение.
+     *
+     * @param xPath XPath выражение элемента.
+     * @return способ поиска элемента.
+     */
+    public static Locator compile(String xPath) {
+        Matcher path = PATH_PATTERN.matcher(xPath.trim());
+        if (!enabled || !path.matches()) {
+            return xPathLocator(xPath);
+        }
+        String tag = path.group(1);
+        Map<String, String> attributes = new LinkedHashMap<>();
+        Matcher predicate = PREDICATE_PATTERN.matcher(path.group(2));
+        while (predicate.find()) {
+            String value = predicate.group(2) != null ? predicate.group(2) : predicate.group(3);
+            if (attributes.put(predicate.group(1), value) != null) {
+                return xPathLocator(xPath);
+            }
+        }
+        if (attributes.size() == 1 && attributes.containsKey("id") && tag.equals(ANY_TAG)) {
+            return new Locator(Locator.Strategy.ID, attributes.get("id"), xPath, null);
+        }
+        if (attributes.size() == 1 && attributes.containsKey("name") && tag.equals(ANY_TAG)) {
+            return new Locator(Locator.Strategy.NAME, attributes.get("name"), xPath, null);
+        }
+        StringBuilder css = new StringBuilder(tag.equals(ANY_TAG) ? "" : tag);
+        for (Map.Entry<String, String> attribute : attributes.entrySet()) {
+            if (attribute.getKey().equals("class")) {
+                String[] classNames = attribute.getValue().trim().split("\\s+");
+                if (classNames[0].isEmpty()) {
+                    return xPathLocator(xPath);
+                }
+                for (String className : classNames) {
+                    css.append('.').append(escapeIdentifier(className));
+                }
+            } else {
+                css.append('[').append(attribute.getKey()).append("=\"")
+                        .append(escapeString(attribute.getValue())).append("\"]");
+            }
+        }
+        return new Locator(Locator.Strategy.CSS, css.isEmpty() ? ANY_TAG : css.toString(), xPath, null);
+    }
+
+    /**
+     * Экранирует идентификатор (имя класса или id) для CSS селектора.
+     */
+    static String escapeIdentifier(String identifier) {
+        StringBuilder escaped = new StringBuilder();
+        for (int i = 0; i < identifier.length(); i++) {
+            char c = identifier.charAt(i);
+            boolean leadingDigit = i == 0 && Character.isDigit(c);
+            if (leadingDigit) {
+                escaped.append('\\').append(Integer.toHexString(c)).append(' ');
+            } else if (Character.isLetterOrDigit(c) || c == '-' || c == '_' || c > 0x7F) {
+                escaped.append(c);
+            } else {
+                escaped.append('\\').append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    /**
+     * Экранирует значение атрибута для CSS селектора в двойных кавычках.
+     */
+    static String escapeString(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private static Locator xPathLocator(String xPath) {
+        return new Locator(Locator.Strategy.XPATH, xPath, xPath, null);
+    }
+}
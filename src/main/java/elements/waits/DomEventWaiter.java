@@ -0,0 +1,59 @@
+package elements.waits;
+
+import com.codeborne.selenide.Selenide;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import utils.Config;
+import utils.Scripts;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Ожидание видимости элемента по событиям DOM.
+ * Вместо периодического опроса из теста в страницу передаётся скрипт с MutationObserver и
+ * IntersectionObserver, который завершается в момент появления элемента. Всё ожидание занимает
+ * один асинхронный вызов WebDriver. Скрипт возвращает появившийся элемент, поэтому для действия с ним
+ * не нужен отдельный поиск.
+ */
+public final class DomEventWaiter {
+    private static final String EVENT_WAITS_PROPERTY = "config.eventWaits";
+    private static final String WAIT_VISIBLE_SCRIPT = "wait-visible.js";
+    private static final boolean enabled = Config.getBoolean(EVENT_WAITS_PROPERTY, true);
+    private static final Logger logger = LogManager.getLogger();
+
+    private DomEventWaiter() {
+    }
+
+    /**
+     * Ожидает, пока элемент, найденный по селектору, станет видимым.
+     *
+     * @param selector CSS селектор или XPath выражение для нахождения элемента.
+     * @param timeout время ожидания.
+     * @param onVisible получает найденный видимый элемент.
+     * @return результат ожидания или пустой Optional, если ожидание по событиям невозможно
+     * (отключено настройкой config.eventWaits, страница перезагрузилась во время ожидания или скрипт
+     * не выполнился) и нужно перейти к опросу.
+     */
+    public static Optional<Boolean> awaitVisible(String selector, Duration timeout, Consumer<WebElement> onVisible) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        try {
+            Object result = Selenide.executeAsyncJavaScript(Scripts.load(WAIT_VISIBLE_SCRIPT), selector,
+                    timeout.toMillis());
+            if (result instanceof WebElement element) {
+                onVisible.accept(element);
+                return Optional.of(true);
+            }
+            return Optional.of(false);
+        } catch (WebDriverException e) {
+            logger.debug("Event driven wait for {} interrupted, falling back to polling: {}", selector,
+                    e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package elements.waits;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utils.Config;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Адаптивные таймауты ожидания элементов.
+ * Для каждого XPath запоминается, сколько времени элемент появлялся в предыдущих запусках, и таймаут
+ * вычисляется как перцентиль этих значений, умноженный на коэффициент запаса и ограниченный снизу и сверху.
+ * Пока наблюдений мало, используется таймаут по умолчанию. Статистика хранится в файле в каталоге
+ * config.dataDir и сохраняется при завершении JVM.
+ */
+public final class LocatorTimeouts {
+    private static final String DATA_DIR_PROPERTY = "config.dataDir";
+    private static final String ADAPTIVE_PROPERTY = "wait.adaptive";
+    private static final String PERCENTILE_PROPERTY = "wait.percentile";
+    private static final String SAFETY_FACTOR_PROPERTY = "wait.safetyFactor";
+    private static final String FLOOR_PROPERTY = "wait.floorMillis";
+    private static final String CEILING_PROPERTY = "wait.ceilingMillis";
+    private static final String DEFAULT_DATA_DIR = ".test-data";
+    private static final String STATS_FILE_NAME = "locator-timings.properties";
+    private static final String SAMPLE_SEPARATOR = ",";
+    private static final int MAX_SAMPLES = 50;
+    private static final int MIN_SAMPLES = 5;
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final boolean adaptive = Config.getBoolean(ADAPTIVE_PROPERTY, true);
+    private static final double percentile = Config.getDouble(PERCENTILE_PROPERTY, 95);
+    private static final double safetyFactor = Config.getDouble(SAFETY_FACTOR_PROPERTY, 3);
+    private static final long floorMillis = Config.getLong(FLOOR_PROPERTY, 2000);
+    private static final long ceilingMillis = Config.getLong(CEILING_PROPERTY, 30000);
+    private static final Path statsPath = Path.of(Config.get(DATA_DIR_PROPERTY, DEFAULT_DATA_DIR), STATS_FILE_NAME);
+    private static final Map<String, Samples> samplesByLocator = new ConcurrentHashMap<>();
+
+    static {
+        load();
+        Runtime.getRuntime().addShutdownHook(new Thread(LocatorTimeouts::save));
+    }
+
+    private LocatorTimeouts() {
+    }
+
+    /**
+     * Возвращает таймаут ожидания для элемента.
+     *
+     * @param xPath XPath выражение элемента.
+     * @param defaultTimeout таймаут, используемый при недостатке наблюдений.
+     * @return таймаут ожидания элемента.
+     */
+    public static Duration timeoutFor(String xPath, Duration defaultTimeout) {
+        Samples samples = samplesByLocator.get(xPath);
+        if (!adaptive || samples == null) {
+            return defaultTimeout;
+        }
+        long[] values = samples.values();
+        if (values.length < MIN_SAMPLES) {
+            return defaultTimeout;
+        }
+        Arrays.sort(values);
+        int index = (int) Math.ceil(percentile / 100 * values.length) - 1;
+        long observed = values[Math.max(0, Math.min(index, values.length - 1))];
+        long timeout = Math.round(observed * safetyFactor);
+        return Duration.ofMillis(Math.max(floorMillis, Math.min(ceilingMillis, timeout)));
+    }
+
+    /**
+     * Запоминает, за сколько времени элемент появился на странице.
+     * Неуспешные ожидания не записываются: по ним известна только нижняя граница времени появления.
+     *
+     * @param xPath XPath выражение элемента.
+     * @param elapsed время ожидания элемента.
+     */
+    public static void record(String xPath, Duration elapsed) {
+        samplesByLocator.computeIfAbsent(xPath, key -> new Samples()).add(elapsed.toMillis());
+    }
+
+    private static void load() {
+        if (!Files.exists(statsPath)) {
+            return;
+        }
+        Properties stored = new Properties();
+        try (Reader reader = Files.newBufferedReader(statsPath, StandardCharsets.UTF_8)) {
+            stored.load(reader);
+        } catch (IOException e) {
+            logger.warn("Failed to read locator timings from {}", statsPath, e);
+            return;
+        }
+        for (String xPath : stored.stringPropertyNames()) {
+            Samples samples = new Samples();
+            Arrays.stream(stored.getProperty(xPath).split(SAMPLE_SEPARATOR))
+                    .filter(value -> !value.isBlank())
+                    .mapToLong(Long::parseLong)
+                    .forEach(samples::add);
+            samplesByLocator.put(xPath, samples);
+        }
+    }
+
+    private static void save() {
+        Properties stored = new Properties();
+        samplesByLocator.forEach((xPath, samples) -> stored.setProperty(xPath, Arrays.stream(samples.values())
+                .mapToObj(String::valueOf)
+                .collect(Collectors.joining(SAMPLE_SEPARATOR))));
+        try {
+            Files.createDirectories(statsPath.getParent());
+            try (Writer writer = Files.newBufferedWriter(statsPath, StandardCharsets.UTF_8)) {
+                stored.store(writer, "Locator appearance times, ms");
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to save locator timings to {}", statsPath, e);
+        }
+    }
+
+    /**
+     * Кольцевой буфер последних наблюдений для одного элемента.
+     */
+    private static final class Samples {
+        private final long[] ring = new long[MAX_SAMPLES];
+        private int size;
+        private int next;
+
+        synchronized void add(long value) {
+            ring[next] = value;
+            next = (next + 1) % MAX_SAMPLES;
+            size = Math.min(size + 1, MAX_SAMPLES);
+        }
+
+        /**
+         * Возвращает наблюдения в порядке от старых к новым.
+         */
+        synchronized long[] values() {
+            long[] result = new long[size];
+            int start = size < MAX_SAMPLES ? 0 : next;
+            for (int i = 0; i < size; i++) {
+                result[i] = ring[(start + i) % MAX_SAMPLES];
+            }
+            return result;
+        }
+    }
+}
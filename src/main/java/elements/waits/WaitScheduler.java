@@ -0,0 +1,104 @@
+package elements.waits;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriverException;
+import utils.Config;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Общий планировщик ожиданий опросом для всех сессий браузеров процесса.
+ * Ожидание не занимает поток между проверками: проверка выполняется в виртуальном потоке, следующая
+ * планируется общим таймером (wait.schedulerThreads потоков, по умолчанию один), результат возвращается
+ * через CompletableFuture. Вызывающий поток ждёт только результата, поэтому виртуальные потоки (например,
+ * пользователи генератора нагрузки) во время ожидания освобождают поток-носитель.
+ */
+public final class WaitScheduler {
+    private static final String THREADS_PROPERTY = "wait.schedulerThreads";
+    private static final ScheduledExecutorService timer = Executors.newScheduledThreadPool(
+            Config.getInt(THREADS_PROPERTY, 1), Thread.ofPlatform().daemon().name("wait-scheduler-", 0).factory());
+    private static final ExecutorService probes =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("wait-probe-", 0).factory());
+    private static final Logger logger = LogManager.getLogger();
+
+    private WaitScheduler() {
+    }
+
+    /**
+     * Запускает опрос: проверка выполняется сразу, затем с периодом polling, пока не вернёт значение или
+     * не истечёт timeout (по истечении выполняется последняя проверка). Ошибки WebDriver при проверке
+     * (элемент не найден, устарел) считаются невыполненным условием.
+     * Проверка выполняется не в вызывающем потоке, поэтому не должна использовать WebDriver потока Selenide,
+     * а только переданный ей явно.
+     *
+     * @param probe проверка, возвращающая значение при выполненном условии.
+     * @param timeout время ожидания.
+     * @param polling период опроса.
+     * @return значение проверки или пустой Optional, если условие не выполнено за время ожидания.
+     * @param <T> тип значения.
+     */
+    public static <T> CompletableFuture<Optional<T>> poll(Supplier<Optional<T>> probe, Duration timeout,
+                                                          Duration polling) {
+        CompletableFuture<Optional<T>> result = new CompletableFuture<>();
+        long deadlineNanos = System.nanoTime() + Math.max(0, timeout.toNanos());
+        probes.execute(() -> attempt(probe, result, deadlineNanos, polling.toNanos()));
+        return result;
+    }
+
+    /**
+     * Ожидает результата опроса. Если вызывающий поток прерван, опрос отменяется.
+     *
+     * @param wait запущенный опрос.
+     * @return результат опроса, пустой при прерывании.
+     * @param <T> тип значения.
+     */
+    public static <T> Optional<T> await(CompletableFuture<Optional<T>> wait) {
+        try {
+            return wait.get();
+        } catch (InterruptedException e) {
+            wait.cancel(false);
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Wait probe failed", e.getCause());
+        }
+    }
+
+    private static <T> void attempt(Supplier<Optional<T>> probe, CompletableFuture<Optional<T>> result,
+                                    long deadlineNanos, long pollingNanos) {
+        if (result.isDone()) {
+            return;
+        }
+        try {
+            Optional<T> value = probe.get();
+            if (value.isPresent()) {
+                result.complete(value);
+                return;
+            }
+        } catch (WebDriverException e) {
+            logger.trace("Wait probe failed, retrying: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+            return;
+        }
+        long remainingNanos = deadlineNanos - System.nanoTime();
+        if (remainingNanos <= 0) {
+            result.complete(Optional.empty());
+            return;
+        }
+        timer.schedule(() -> probes.execute(() -> attempt(probe, result, deadlineNanos, pollingNanos)),
+                Math.min(pollingNanos, remainingNanos), TimeUnit.NANOSECONDS);
+    }
+}
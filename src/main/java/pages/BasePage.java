@@ -1,8 +1,27 @@
 package pages;
 
 import com.codeborne.selenide.Selenide;
+import com.codeborne.selenide.WebDriverRunner;
+import elements.BaseElement;
+import elements.ElementCache;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import utils.Config;
+import utils.Deadline;
+import utils.Scripts;
+import utils.capture.FailureArtifacts;
+import utils.perf.PagePerformance;
+import utils.trace.Tracer;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Базовый класс для всех страниц веб-приложения.
@@ -10,13 +29,59 @@ import org.apache.logging.log4j.Logger;
  */
 abstract public class BasePage {
     protected final Logger logger = LogManager.getLogger(this.getClass());
-    private static final int CLASS_NAME_START = 6;
+    private static final String PAGE_SNAPSHOT_SCRIPT = "page-snapshot.js";
+    private static final String PAGE_LOAD_TIMEOUT_PROPERTY = "config.pageLoadTimeout";
+    private static final Map<Class<?>, List<Field>> elementFieldsByPage = new ConcurrentHashMap<>();
 
     /**
-     * Конструктор, логирующий информацию об открытии страницы
+     * Конструктор, логирующий информацию об открытии страницы. Обращений к браузеру не делает: страница
+     * создаётся и во время перехода, метрики документа снимаются позже (см. {@link PagePerformance#opened}).
+     * Переход на страницу после исчерпания времени теста завершается ошибкой.
+     * Новая страница начинает новый жизненный цикл для найденных элементов (см. {@link ElementCache}).
      */
     public BasePage() {
-        logger.info(this.getClass().toString().substring(CLASS_NAME_START) + " opened");
+        Deadline.check();
+        ElementCache.invalidate();
+        Tracer.instant(Tracer.PAGE, getClass().getSimpleName());
+        logger.info("{} opened", getClass().getName());
+        PagePerformance.opened(getClass().getSimpleName());
+    }
+
+    /**
+     * Снимает метрики производительности текущего документа (см. {@link PagePerformance}).
+     * Вызывается по завершении переходов между страницами.
+     *
+     * @param event событие, после которого сняты метрики.
+     */
+    protected void capturePerformance(String event) {
+        PagePerformance.capture(getClass().getSimpleName(), event);
+    }
+
+    /**
+     * Открывает адрес в текущем браузере. Таймаут загрузки страницы сокращается до оставшегося времени теста,
+     * время загрузки учитывается во времени теста (см. {@link Deadline}). Найденные ранее элементы
+     * после перехода находятся заново.
+     *
+     * @param url адрес страницы.
+     */
+    public static void open(String url) {
+        long startNanos = System.nanoTime();
+        Duration pageLoadTimeout = Duration.ofMillis(Config.getLong(PAGE_LOAD_TIMEOUT_PROPERTY, 30000));
+        Duration boundTimeout = Deadline.bound(pageLoadTimeout);
+        WebDriver driver = WebDriverRunner.getWebDriver();
+        ElementCache.invalidate();
+        if (boundTimeout.compareTo(pageLoadTimeout) < 0) {
+            driver.manage().timeouts().pageLoadTimeout(boundTimeout);
+        }
+        try (Tracer.Span span = Tracer.span(Tracer.PAGE, "open", url)) {
+            Selenide.open(url);
+        } finally {
+            if (boundTimeout.compareTo(pageLoadTimeout) < 0) {
+                driver.manage().timeouts().pageLoadTimeout(pageLoadTimeout);
+            }
+            Deadline.record("open", startNanos);
+        }
+        FailureArtifacts.capture("open " + url);
     }
 
     /**
@@ -28,4 +93,70 @@ abstract public class BasePage {
     public static <T extends BasePage>T page(Class<T> pageClass) {
         return Selenide.page(pageClass);
     }
+
+    /**
+     * Получает состояние всех элементов, объявленных полями страницы, одним вызовом WebDriver:
+     * присутствие, видимость, текст и значение. Не ожидает появления элементов.
+     *
+     * @return снимок состояния элементов страницы.
+     */
+    public PageSnapshot snapshot() {
+        Map<String, BaseElement> elements = elementFields();
+        List<String> selectors = elements.values().stream().map(BaseElement::getSelector).toList();
+        List<Map<String, Object>> states = Selenide.executeJavaScript(Scripts.load(PAGE_SNAPSHOT_SCRIPT), selectors);
+        Map<String, PageSnapshot.ElementState> statesByName = new LinkedHashMap<>();
+        Map<BaseElement, PageSnapshot.ElementState> statesByElement = new IdentityHashMap<>();
+        int index = 0;
+        for (Map.Entry<String, BaseElement> element : elements.entrySet()) {
+            Map<String, Object> state = states.get(index++);
+            PageSnapshot.ElementState elementState = new PageSnapshot.ElementState(
+                    Boolean.TRUE.equals(state.get("present")),
+                    Boolean.TRUE.equals(state.get("visible")),
+                    (String) state.get("text"),
+                    (String) state.get("value"));
+            statesByName.put(element.getKey(), elementState);
+            statesByElement.put(element.getValue(), elementState);
+        }
+        PageSnapshot snapshot = new PageSnapshot(statesByName, statesByElement);
+        logger.debug("page snapshot: {}", snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Возвращает элементы, объявленные полями страницы и её родительских классов, по именам полей.
+     *
+     * @return элементы страницы в порядке объявления.
+     * @throws IllegalStateException если поле элемента не заполнено.
+     */
+    private Map<String, BaseElement> elementFields() {
+        List<Field> fields = elementFieldsByPage.computeIfAbsent(getClass(), BasePage::findElementFields);
+        Map<String, BaseElement> elements = new LinkedHashMap<>();
+        for (Field field : fields) {
+            BaseElement element;
+            try {
+                element = (BaseElement) field.get(this);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot read element field " + field.getName(), e);
+            }
+            if (element == null) {
+                throw new IllegalStateException("Element field " + field.getDeclaringClass().getSimpleName() + "."
+                        + field.getName() + " is not initialized");
+            }
+            elements.put(field.getName(), element);
+        }
+        return elements;
+    }
+
+    private static List<Field> findElementFields(Class<?> pageClass) {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> type = pageClass; type != BasePage.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (BaseElement.class.isAssignableFrom(field.getType())) {
+                    field.setAccessible(true);
+                    fields.add(field);
+                }
+            }
+        }
+        return fields;
+    }
 }
@@ -1,6 +1,7 @@
 package pages;
 
 import elements.TextDiv;
+import utils.perf.StepTimer;
 
 /**
  * Класс представляет домашнюю страницу и предоставляет методы для взаимодействия с элементами этой страницы.
@@ -15,7 +16,13 @@ public class HomePage extends BasePage {
      */
     public boolean isAuthorized() {
         boolean isUserNameDisplayed = userNameDiv.isDisplayed();
-        logger.info("user name " + (isUserNameDisplayed ? "" : "not ") + "displayed");
+        logger.info("user name {}displayed", isUserNameDisplayed ? "" : "not ");
+        if (isUserNameDisplayed) {
+            StepTimer.stop(StepTimer.LOGIN_STEP);
+            capturePerformance("authorized");
+        } else {
+            StepTimer.cancel(StepTimer.LOGIN_STEP);
+        }
         return isUserNameDisplayed;
     }
 }
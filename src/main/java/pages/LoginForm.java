@@ -0,0 +1,24 @@
+package pages;
+
+import utils.Credentials;
+
+/**
+ * Контракт формы входа, общий для страницы в браузере ({@link LoginPage}) и HTTP клиента без браузера.
+ * Используется проверками, которым важен только ответ сервера, а не поведение интерфейса.
+ */
+public interface LoginForm {
+
+    /**
+     * Отправляет форму входа с данными, которые сервер должен отклонить.
+     *
+     * @param credentials логин и пароль пользователя.
+     * @return текст оповещения о неверных данных или пустая строка, если оповещения нет.
+     */
+    String submitRejected(Credentials credentials);
+
+    /**
+     * Возвращает форму в исходное состояние перед следующей отправкой. Форме без состояния ничего делать не нужно.
+     */
+    default void reset() {
+    }
+}
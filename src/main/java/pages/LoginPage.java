@@ -1,22 +1,30 @@
 package pages;
 
 import static com.codeborne.selenide.Selenide.actions;
+import com.codeborne.selenide.Configuration;
 import elements.Buttons.Button;
 import elements.Buttons.LinkButton;
+import elements.Form;
 import elements.Input;
 import org.openqa.selenium.Keys;
+import utils.Credentials;
+import utils.Deadline;
+import utils.driver.Alerts;
+import utils.perf.StepTimer;
+
+import java.time.Duration;
 
 /**
  * Класс представляет страницу авторизации и предосталвяет методы для взаимодействия с элементами этой страницы..
  */
-public class LoginPage extends BasePage {
+public class LoginPage extends BasePage implements LoginForm {
     private final Input loginInput = Input.byClassAndName("mira-widget-login-input " +
             "mira-default-login-page-text-input", "user");
     private final Input passwordInput = Input.byClassAndName("mira-widget-login-input " +
             "mira-default-login-page-text-input", "password");
     private final Button loginButton = Button.byClass("mira-widget-login-button " +
             "mira-default-login-page-button-submit");
-    private final Button showPasswordButton = Button.byClass("mira-widget-login-button");
+    private final Button showPasswordButton = Button.byClassAndType("mira-widget-login-button", "button");
     private final LinkButton recoverPasswordButton = LinkButton.byClass("mira-default-login-page-link");
 
     /**
@@ -26,7 +34,7 @@ public class LoginPage extends BasePage {
      */
     public void fillLoginInput(String login) {
         loginInput.fill(login);
-        logger.info("login input: " + login);
+        logger.info("login input: {}", login);
     }
 
     /**
@@ -36,7 +44,7 @@ public class LoginPage extends BasePage {
      */
     public void fillPasswordInput(String password) {
         passwordInput.fill(password);
-        logger.info("login input: " + password);
+        logger.info("password input: {}", Credentials.hide(password));
     }
 
     /**
@@ -45,11 +53,74 @@ public class LoginPage extends BasePage {
      * @return экземпляр HomePage.
      */
     public HomePage clickLoginButton() {
+        StepTimer.start(StepTimer.LOGIN_STEP);
         loginButton.click();
         logger.info("login button clicked");
         return BasePage.page(HomePage.class);
     }
 
+    /**
+     * Заполняет логин и пароль и отправляет форму входа одним вызовом WebDriver, затем переходит
+     * на домашнюю страницу. Посимвольный ввод не используется, для проверки работы с клавиатурой
+     * следует использовать {@link #fillCurrent(String)} и {@link #pressKey(Keys)}.
+     *
+     * @param credentials логин и пароль пользователя.
+     * @return экземпляр HomePage.
+     */
+    public HomePage submit(Credentials credentials) {
+        StepTimer.start(StepTimer.LOGIN_STEP);
+        submitForm(credentials);
+        return BasePage.page(HomePage.class);
+    }
+
+    /**
+     * Нажимает Enter в текущем поле ввода, отправляя форму входа с клавиатуры, и переходит на домашнюю
+     * страницу. Используется при тестировании входа с горячими клавишами.
+     *
+     * @return экземпляр HomePage.
+     */
+    public HomePage submitByEnter() {
+        StepTimer.start(StepTimer.LOGIN_STEP);
+        pressKey(Keys.ENTER);
+        return BasePage.page(HomePage.class);
+    }
+
+    private void submitForm(Credentials credentials) {
+        Form.submittedBy(loginButton)
+                .with(loginInput, credentials.login())
+                .with(passwordInput, credentials.password())
+                .submit();
+        logger.info("login form submitted with {}", credentials);
+    }
+
+    /**
+     * Отправляет форму входа и подтверждает появившееся оповещение о неверных данных (см. {@link Alerts}).
+     * Оповещение ожидается не дольше оставшегося времени теста. Шаг входа не замеряется: вход не состоится.
+     *
+     * @param credentials логин и пароль пользователя.
+     * @return текст оповещения.
+     */
+    @Override
+    public String submitRejected(Credentials credentials) {
+        submitForm(credentials);
+        long startNanos = System.nanoTime();
+        String alertText = Alerts.next(Deadline.bound(Duration.ofMillis(Configuration.timeout))).orElse("");
+        Deadline.record("alert", startNanos);
+        logger.info("login rejected with alert: {}", alertText);
+        return alertText;
+    }
+
+    /**
+     * Закрывает оставшееся оповещение и очищает поля логина и пароля без перезагрузки страницы.
+     */
+    @Override
+    public void reset() {
+        Alerts.clear();
+        loginInput.fill("");
+        passwordInput.fill("");
+        logger.info("login form reset");
+    }
+
     /**
      * Заполняет текущее поле ввода переданным текстом. Используется при тестировании
      * входа с горячими клавишами
@@ -58,7 +129,7 @@ public class LoginPage extends BasePage {
      */
     public void fillCurrent(String text) {
         actions().sendKeys(text).perform();
-        logger.info("current input is filled with text: " + text);
+        logger.info("current input is filled with text: {}", Credentials.hide(text));
     }
 
     /**
@@ -76,7 +147,7 @@ public class LoginPage extends BasePage {
      */
     public void pressKey(Keys key) {
         actions().sendKeys(key).perform();
-        logger.info("key pressed: " + key.toString());
+        logger.info("key pressed: {}", key);
     }
 
     /**
@@ -95,7 +166,7 @@ public class LoginPage extends BasePage {
      */
     public String getPassword() {
         String password = passwordInput.getInputText();
-        logger.info("got password from password input: " + password);
+        logger.info("got password from password input: {}", Credentials.hide(password));
         return password;
     }
 
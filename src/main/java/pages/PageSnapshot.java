@@ -0,0 +1,89 @@
+package pages;
+
+import elements.BaseElement;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Состояние всех элементов страницы, полученное одним вызовом WebDriver.
+ * Используется для проверок готовности страницы и утверждений без отдельного ожидания на каждый элемент.
+ */
+public class PageSnapshot {
+    private final Map<String, ElementState> statesByName;
+    private final Map<BaseElement, ElementState> statesByElement;
+
+    /**
+     * Состояние одного элемента.
+     *
+     * @param present присутствует ли элемент в DOM.
+     * @param visible виден ли элемент.
+     * @param text видимый текст элемента.
+     * @param value значение поля ввода или null, если у элемента нет значения.
+     */
+    public record ElementState(boolean present, boolean visible, String text, String value) {
+    }
+
+    PageSnapshot(Map<String, ElementState> statesByName, Map<BaseElement, ElementState> statesByElement) {
+        this.statesByName = Collections.unmodifiableMap(statesByName);
+        this.statesByElement = new IdentityHashMap<>(statesByElement);
+    }
+
+    /**
+     * Возвращает состояние элемента по имени поля страницы.
+     *
+     * @param fieldName имя поля BaseElement в классе страницы.
+     * @return состояние элемента.
+     */
+    public ElementState state(String fieldName) {
+        ElementState state = statesByName.get(fieldName);
+        if (state == null) {
+            throw new IllegalArgumentException("Page has no element field " + fieldName);
+        }
+        return state;
+    }
+
+    /**
+     * Возвращает состояние элемента страницы.
+     *
+     * @param element элемент, объявленный полем страницы.
+     * @return состояние элемента.
+     */
+    public ElementState state(BaseElement element) {
+        ElementState state = statesByElement.get(element);
+        if (state == null) {
+            throw new IllegalArgumentException("Element is not declared on the page: " + element);
+        }
+        return state;
+    }
+
+    /**
+     * Проверяет, видны ли все перечисленные элементы.
+     *
+     * @param fieldNames имена полей BaseElement в классе страницы.
+     * @return true, если все элементы видны.
+     */
+    public boolean allVisible(String... fieldNames) {
+        for (String fieldName : fieldNames) {
+            if (!state(fieldName).visible()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Возвращает состояния всех элементов страницы по именам полей.
+     *
+     * @return неизменяемый словарь состояний.
+     */
+    public Map<String, ElementState> states() {
+        return statesByName;
+    }
+
+    @Override
+    public String toString() {
+        return "PageSnapshot" + statesByName;
+    }
+}
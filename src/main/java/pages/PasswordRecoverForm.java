@@ -0,0 +1,29 @@
+package pages;
+
+/**
+ * Контракт формы восстановления пароля, общий для страницы в браузере ({@link PasswordRecoverPage})
+ * и HTTP клиента без браузера.
+ */
+public interface PasswordRecoverForm {
+
+    /**
+     * Отправляет запрос на восстановление пароля.
+     *
+     * @param login логин пользователя.
+     */
+    void recover(String login);
+
+    /**
+     * Возвращает предупреждение об отсутствии пользователя с данным логином.
+     *
+     * @return текст предупреждения, если оно отображается, иначе пустая строка.
+     */
+    String getRecoveringUserAlertMessage();
+
+    /**
+     * Возвращает сообщение об успешной отправке email для восстановления пароля.
+     *
+     * @return текст сообщения, если оно отображается, иначе пустая строка.
+     */
+    String getRecoveringUserSuccessMessage();
+}
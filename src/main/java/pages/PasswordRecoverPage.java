@@ -3,12 +3,13 @@ package pages;
 import elements.Buttons.Button;
 import elements.Input;
 import elements.TextDiv;
+import utils.perf.StepTimer;
 
 /**
  * Класс представляет страницу восстаноления пароля и предосталвяет методы
  * для взаимодействия с элементами этой страницы..
  */
-public class PasswordRecoverPage extends BasePage {
+public class PasswordRecoverPage extends BasePage implements PasswordRecoverForm {
     private final Input loginInput = Input.byClass("mira-widget-login-input " +
             "mira-default-login-page-text-input");
     private final Button sendRecoverEmailButton = Button.byClass("mira-page-forgot-password-button");
@@ -23,19 +24,32 @@ public class PasswordRecoverPage extends BasePage {
      */
     public void fillLoginInput(String login) {
         loginInput.fill(login);
-        logger.info("login to recover input: " + login);
+        logger.info("login to recover input: {}", login);
     }
 
     /**
      * Нажимает кнопку для отправки электронного письма для восстановления пароля.
      */
     public void clickSendRecoverEmailButton() {
+        StepTimer.start(StepTimer.RECOVER_STEP);
         sendRecoverEmailButton.click();
         logger.info("send recover email button clicked");
     }
 
+    /**
+     * Заполняет логин и отправляет запрос на восстановление пароля.
+     *
+     * @param login логин пользователя.
+     */
+    @Override
+    public void recover(String login) {
+        fillLoginInput(login);
+        clickSendRecoverEmailButton();
+    }
+
     /**
      * Возвращает сообщение пользователю, если оно отображается на странице.
+     * После ожидания сообщения текст берётся из снимка страницы, без повторного ожидания элемента.
      *
      * @param message элемент TextDiv, содержащий сообщение.
      * @return текст сообщения, если оно отображается, иначе пустая строка.
@@ -43,9 +57,13 @@ public class PasswordRecoverPage extends BasePage {
     private String getRecoveringUserMessage(TextDiv message) {
         String messageText = EMPTY_STRING;
         if (message.isDisplayed()) {
-            messageText = message.getText();
+            messageText = snapshot().state(message).text();
+            StepTimer.stop(StepTimer.RECOVER_STEP);
+            capturePerformance("recover message shown");
+        } else {
+            StepTimer.cancel(StepTimer.RECOVER_STEP);
         }
-        logger.info("recovering password message: " + messageText);
+        logger.info("recovering password message: {}", messageText);
         return messageText;
     }
 
@@ -55,6 +73,7 @@ public class PasswordRecoverPage extends BasePage {
      *
      * @return текст предупреждающего сообщения, если оно отображается, иначе пустая строка.
      */
+    @Override
     public String getRecoveringUserAlertMessage() {
         return getRecoveringUserMessage(alertMessage);
     }
@@ -64,6 +83,7 @@ public class PasswordRecoverPage extends BasePage {
      *
      * @return текст сообщения об успешном восстановлении, если оно отображается, иначе пустая строка.
      */
+    @Override
     public String getRecoveringUserSuccessMessage() {
         return getRecoveringUserMessage(successMessage);
     }
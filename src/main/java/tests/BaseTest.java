@@ -2,74 +2,143 @@ package tests;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.extension.ExtendWith;
 
 import com.codeborne.selenide.Configuration;
-import com.codeborne.selenide.Selenide;
+import elements.ElementCache;
+import pages.BasePage;
+import pages.HomePage;
+import pages.LoginForm;
+import pages.LoginPage;
+import pages.PasswordRecoverForm;
+import utils.Config;
+import utils.Credentials;
+import utils.Deadline;
+import utils.TestContext;
+import utils.driver.BrowserPool;
+import utils.perf.PagePerformance;
+import utils.perf.PerformanceBudgets;
+import utils.perf.StepTimer;
+import utils.session.SessionStore;
+import utils.trace.Tracer;
+import utils.standin.MirapolisStandInServer;
 
-import java.io.FileInputStream;
-import java.io.IOException;
+import java.lang.reflect.Method;
 import java.util.Properties;
 
-import static com.codeborne.selenide.WebDriverRunner.closeWebDriver;
-
 /**
  * Абстрактный базовый класс для представления тестов.
  * Этот класс предоставляет методы для работы с браузером.
+ * Браузеры берутся из общего пула {@link BrowserPool}, поэтому тесты могут выполняться параллельно
+ * (параметры параллельного запуска JUnit заданы в junit-platform.properties).
+ * При недоступном стенде тесты прерываются без ожидания таймаутов (см. {@link InfrastructureGuard}),
+ * для упавших тестов сохраняются последние снимки экрана и DOM (см. {@link FailureCapture}), после
+ * ordering.maxFailures падений оставшиеся тесты пропускаются (см. {@link FailFast}).
  */
+@ExtendWith({InfrastructureGuard.class, FailureCapture.class, FailFast.class})
 abstract public class BaseTest {
-    protected final static Properties properties;
+    protected final static Properties properties = Config.properties();
     protected final static String USER_LOGIN_PROPERTY = "user.login";
     protected final static String USER_PASSWORD_PROPERTY = "user.password";
-    private final static String PROPERTIES_PATH = "config.properties";
     private final static String BASE_URL_PROPERTY = "web.url";
-    private final static String BROWSER_PROPERTY = "web.browser";
-    private final static String RESOLUTION_PROPERTY = "web.resolution";
     private final static String CONFIG_TIMEOUT_PROPERTY = "config.timeout";
-    private static final String CONFIG_PAGE_TIMEOUT_PROPERTY = "config.pageLoadTimeout";
-    private static final String CONFIG_PAGE_LOAD_STRATEGY_PROPERTY = "config.pageLoadStrategy";
-    private static final String CONFIG_HEADLESS_PROPERTY = "config.headless";
     protected final Logger logger = LogManager.getLogger(this.getClass());
 
     /**
-     * Блок статическиой инициализации файла с зависимостями
+     * Блок статической инициализации общих настроек Selenide.
+     * Настройки задаются один раз, а не в каждом тесте, так как Configuration общая для всех потоков.
+     * При standin.enabled=true запускает локальную замену стенда и направляет на неё web.url.
      */
     static {
-        properties = new Properties();
-        try (FileInputStream fis = new FileInputStream(PROPERTIES_PATH)) {
-            properties.load(fis);
-        } catch (IOException e) {
-            LogManager.getLogger(BaseTest.class).error("Failed to load properties from {}",
-                    PROPERTIES_PATH, e);
-            throw new RuntimeException("open properties file error");
-        }
+        MirapolisStandInServer.startIfEnabled();
+        Configuration.timeout = Config.getLong(CONFIG_TIMEOUT_PROPERTY, Configuration.timeout);
     }
 
     /**
      * Метод для настройки окружения перед каждым тестом.
-     * Настраивает браузер, его размеры и параметры, а также открывает базовый URL.
+     * Запоминает идентификатор теста, арендует браузер из пула для текущего потока и открывает базовый URL.
+     * Время теста ограничивается deadline.testMillis (см. {@link Deadline}), начиная с аренды браузера.
+     *
+     * @param testInfo информация о запускаемом тесте.
      */
     @BeforeEach
-    public void setUp(){
+    public void setUp(TestInfo testInfo){
+        TestContext.start(getClass().getSimpleName() + "."
+                + testInfo.getTestMethod().map(Method::getName).orElse(testInfo.getDisplayName()));
         logger.info("test starts");
-        Configuration.browser = properties.getProperty(BROWSER_PROPERTY);
-        Configuration.browserSize = properties.getProperty(RESOLUTION_PROPERTY);
-        Configuration.headless = Boolean.parseBoolean(properties.getProperty(CONFIG_HEADLESS_PROPERTY));
-        Configuration.timeout = Long.parseLong(properties.getProperty(CONFIG_TIMEOUT_PROPERTY));
-        Configuration.pageLoadTimeout = Long.parseLong(properties.getProperty(CONFIG_PAGE_TIMEOUT_PROPERTY));
-        Configuration.pageLoadStrategy = properties.getProperty(CONFIG_PAGE_LOAD_STRATEGY_PROPERTY);
-        Selenide.open(properties.getProperty(BASE_URL_PROPERTY));
+        Deadline.start();
+        Tracer.start();
+        BrowserPool.shared().lease();
+        BasePage.open(Config.get(BASE_URL_PROPERTY));
         logger.info("test settings are set");
     }
 
+    /**
+     * Возвращает форму входа на открытой странице входа.
+     *
+     * @return форма входа.
+     */
+    protected LoginForm loginForm() {
+        return BasePage.page(LoginPage.class);
+    }
+
+    /**
+     * Переходит со страницы входа на форму восстановления пароля.
+     *
+     * @return форма восстановления пароля.
+     */
+    protected PasswordRecoverForm passwordRecoverForm() {
+        return BasePage.page(LoginPage.class).clickForgetPasswordButton();
+    }
+
+    /**
+     * Открывает домашнюю страницу под пользователем из config.properties без прохождения формы входа.
+     * Используется тестами, которым нужна авторизованная страница, но которые не проверяют саму форму входа.
+     *
+     * @return экземпляр HomePage авторизованного пользователя.
+     */
+    protected HomePage openAuthorizedHomePage() {
+        return SessionStore.shared().openAuthorized(new Credentials(properties.getProperty(USER_LOGIN_PROPERTY),
+                properties.getProperty(USER_PASSWORD_PROPERTY)));
+    }
+
     /**
      * Метод для завершения тестов и очистки окружения после каждого теста.
+     * Записывает собранные метрики страниц и трассировку теста, забывает незавершённые шаги замеров,
+     * браузер не закрывается, а очищается и возвращается в пул.
      */
     @AfterEach
     public void tearDown() {
         logger.info("tear down");
-        closeWebDriver();
+        StepTimer.reset();
+        PagePerformance.flush();
+        BrowserPool.shared().release();
+        Tracer.finish();
+        Deadline.finish();
+        TestContext.finish();
+    }
+
+    /**
+     * Проверяет бюджеты длительности шагов (budget.* в config.properties) и замедление относительно
+     * предыдущих запусков по замерам тестов этого класса.
+     *
+     * @param testInfo информация о завершённом классе тестов.
+     */
+    @AfterAll
+    public static void verifyPerformanceBudgets(TestInfo testInfo) {
+        PerformanceBudgets.verify(testInfo.getTestClass().map(Class::getSimpleName).orElseThrow());
+    }
+
+    /**
+     * Выводит в лог, сколько поисков элементов в браузере сэкономил кеш найденных элементов.
+     */
+    @AfterAll
+    public static void reportElementCache() {
+        ElementCache.logStatistics();
     }
 
 }
@@ -0,0 +1,90 @@
+package tests;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.DynamicTestInvocationContext;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.InvocationInterceptor;
+import org.junit.jupiter.api.extension.TestWatcher;
+import org.opentest4j.TestAbortedException;
+import utils.capture.FailureArtifacts;
+import utils.logging.TestLogBuffer;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+
+/**
+ * Расширение JUnit, связывающее тесты с буфером кадров {@link FailureArtifacts} и буфером лога
+ * {@link TestLogBuffer}. Перед тестом начинает буферы, при падении снимает последний кадр до очистки браузера,
+ * а после теста выводит буферы, если тест упал, или забывает их.
+ * JUnit не вызывает обратные вызовы тестов для динамических тестов, поэтому их падения перехватываются
+ * отдельно: кадр снимается в момент падения, а тест-фабрика, завершившаяся успешно, считается упавшей
+ * с причиной первого упавшего динамического теста.
+ */
+public class FailureCapture implements BeforeEachCallback, AfterTestExecutionCallback, TestWatcher,
+        InvocationInterceptor {
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(FailureCapture.class);
+    private static final String DYNAMIC_FAILURE_KEY = "dynamicFailure";
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        FailureArtifacts.start();
+        TestLogBuffer.start();
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        context.getExecutionException()
+                .filter(throwable -> !(throwable instanceof TestAbortedException))
+                .ifPresent(throwable -> FailureArtifacts.captureFailure());
+    }
+
+    @Override
+    public void interceptDynamicTest(Invocation<Void> invocation, DynamicTestInvocationContext invocationContext,
+                                     ExtensionContext extensionContext) throws Throwable {
+        try {
+            invocation.proceed();
+        } catch (Throwable throwable) {
+            if (!(throwable instanceof TestAbortedException)) {
+                FailureArtifacts.captureFailure();
+                extensionContext.getParent().ifPresent(factory ->
+                        factory.getStore(NAMESPACE).getOrComputeIfAbsent(DYNAMIC_FAILURE_KEY, key -> throwable));
+            }
+            throw throwable;
+        }
+    }
+
+    @Override
+    public void testFailed(ExtensionContext context, Throwable cause) {
+        TestLogBuffer.finish(true);
+        FailureArtifacts.finish(testId(context), cause);
+    }
+
+    @Override
+    public void testSuccessful(ExtensionContext context) {
+        Throwable dynamicFailure = context.getStore(NAMESPACE).get(DYNAMIC_FAILURE_KEY, Throwable.class);
+        TestLogBuffer.finish(dynamicFailure != null);
+        FailureArtifacts.finish(testId(context), dynamicFailure);
+    }
+
+    @Override
+    public void testAborted(ExtensionContext context, Throwable cause) {
+        TestLogBuffer.finish(false);
+        FailureArtifacts.finish(testId(context), null);
+    }
+
+    @Override
+    public void testDisabled(ExtensionContext context, Optional<String> reason) {
+        TestLogBuffer.finish(false);
+        FailureArtifacts.finish(testId(context), null);
+    }
+
+    /**
+     * Идентификатор теста в том же виде, что и в BaseTest: Класс.метод.
+     */
+    private static String testId(ExtensionContext context) {
+        return context.getRequiredTestClass().getSimpleName() + "."
+                + context.getTestMethod().map(Method::getName).orElse(context.getDisplayName());
+    }
+}
@@ -0,0 +1,35 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import static com.codeborne.selenide.Selenide.*;
+import org.junit.jupiter.api.Test;
+import pages.BasePage;
+import pages.HomePage;
+
+/**
+ * Класс содержит тестирование домашней страницы авторизованного пользователя.
+ * Форма входа здесь не проверяется, поэтому страница открывается через сохранённую сессию
+ * {@link BaseTest#openAuthorizedHomePage()}.
+ */
+public class HomePageTest extends BaseTest {
+
+    /**
+     * Проверяет, что на домашней странице отображается имя авторизованного пользователя.
+     */
+    @Test
+    public void userNameDisplayedTest() {
+        HomePage homePage = openAuthorizedHomePage();
+        assertTrue(homePage.isAuthorized(), "Имя пользователя не отображается на домашней странице");
+    }
+
+    /**
+     * Проверяет, что авторизация сохраняется после перезагрузки домашней страницы.
+     */
+    @Test
+    public void authorizationKeptAfterRefreshTest() {
+        openAuthorizedHomePage();
+        refresh();
+        assertTrue(BasePage.page(HomePage.class).isAuthorized(), "Авторизация потеряна после перезагрузки страницы");
+    }
+}
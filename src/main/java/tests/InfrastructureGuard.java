@@ -0,0 +1,69 @@
+package tests;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.LifecycleMethodExecutionExceptionHandler;
+import org.junit.jupiter.api.extension.TestExecutionExceptionHandler;
+import org.opentest4j.TestAbortedException;
+import utils.health.CircuitBreaker;
+import utils.standin.MirapolisStandInServer;
+
+/**
+ * Расширение JUnit, связывающее тесты с общим {@link CircuitBreaker}.
+ * Перед первым классом проверяет доступность стенда, перед каждым тестом прерывает его, если предохранитель
+ * разомкнут, а инфраструктурные сбои тестов и их подготовки отмечает как прерванные тесты, а не как ошибки
+ * продукта.
+ */
+public class InfrastructureGuard implements BeforeAllCallback, BeforeEachCallback, AfterTestExecutionCallback,
+        TestExecutionExceptionHandler, LifecycleMethodExecutionExceptionHandler {
+    private static final String ABORT_MESSAGE = "Infrastructure failure, test aborted: ";
+
+    /**
+     * Проверяет стенд перед первым классом тестов. Класс теста к этому моменту может быть ещё
+     * не инициализирован, поэтому локальная замена стенда запускается здесь же.
+     */
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        MirapolisStandInServer.startIfEnabled();
+        CircuitBreaker.shared().probeOnce();
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        CircuitBreaker.shared().openReason().ifPresent(reason -> {
+            throw new TestAbortedException(ABORT_MESSAGE + reason);
+        });
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        if (context.getExecutionException().isEmpty()) {
+            CircuitBreaker.shared().recordSuccess();
+        }
+    }
+
+    @Override
+    public void handleTestExecutionException(ExtensionContext context, Throwable throwable) throws Throwable {
+        throw classify(throwable);
+    }
+
+    @Override
+    public void handleBeforeEachMethodExecutionException(ExtensionContext context, Throwable throwable)
+            throws Throwable {
+        throw classify(throwable);
+    }
+
+    /**
+     * Заменяет инфраструктурный сбой прерыванием теста, остальные исключения возвращает без изменений.
+     */
+    private static Throwable classify(Throwable throwable) {
+        if (throwable instanceof TestAbortedException) {
+            return throwable;
+        }
+        return CircuitBreaker.shared().recordFailure(throwable)
+                .<Throwable>map(problem -> new TestAbortedException(ABORT_MESSAGE + problem, throwable))
+                .orElse(throwable);
+    }
+}
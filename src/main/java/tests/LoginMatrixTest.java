@@ -0,0 +1,67 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import pages.LoginForm;
+import utils.Config;
+import utils.Credentials;
+import utils.CsvTable;
+
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Класс содержит проверки формы входа с неверными данными по таблице login.matrix
+ * (по умолчанию ресурс data/login-matrix.csv). Все строки таблицы выполняются в одной сессии браузера:
+ * между строками оповещение закрывается, а форма очищается без перезагрузки страницы.
+ * Каждая строка отображается отдельным результатом теста. Строки выполняются по очереди в потоке,
+ * арендовавшем браузер: в других потоках пула JUnit нет ни браузера, ни состояния теста.
+ */
+public class LoginMatrixTest extends BaseTest {
+    private static final String MATRIX_PROPERTY = "login.matrix";
+    private static final String DEFAULT_MATRIX = "data/login-matrix.csv";
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{([\\w.]+)}");
+
+    /**
+     * Отправляет форму входа с данными каждой строки таблицы.
+     * Убеждается, что появляется предупреждающее окно с ожидаемым текстом.
+     *
+     * @return проверки по строкам таблицы.
+     */
+    @TestFactory
+    @Execution(ExecutionMode.SAME_THREAD)
+    public Stream<DynamicTest> rejectedCredentialsTest() {
+        LoginForm loginForm = loginForm();
+        return CsvTable.read(Config.get(MATRIX_PROPERTY, DEFAULT_MATRIX)).stream()
+                .map(row -> DynamicTest.dynamicTest(row.get("name"), () -> checkRejected(loginForm, row)));
+    }
+
+    private void checkRejected(LoginForm loginForm, Map<String, String> row) {
+        loginForm.reset();
+        Credentials credentials = new Credentials(resolve(row.get("login"), row), resolve(row.get("password"), row));
+        assertEquals(row.get("expectedAlert"), loginForm.submitRejected(credentials),
+                "Ошибка обработки неверных данных: " + row.get("name"));
+    }
+
+    /**
+     * Заменяет ${свойство} значением из config.properties.
+     *
+     * @throws IllegalArgumentException если свойства нет в настройках.
+     */
+    private static String resolve(String value, Map<String, String> row) {
+        return PLACEHOLDER.matcher(value).replaceAll(match -> {
+            String property = Config.get(match.group(1));
+            if (property == null) {
+                throw new IllegalArgumentException("Unknown property in placeholder " + match.group()
+                        + " of login matrix row " + row.get("name"));
+            }
+            return Matcher.quoteReplacement(property);
+        });
+    }
+}
@@ -6,14 +6,15 @@ import static com.codeborne.selenide.Selenide.*;
 import org.junit.jupiter.api.Test;
 import org.openqa.selenium.Keys;
 import pages.BasePage;
-import pages.PasswordRecoverPage;
+import pages.PasswordRecoverForm;
 import pages.HomePage;
 import pages.LoginPage;
+import utils.Credentials;
 
 /**
  * Класс содержит тестирование авторизации на сайте. Реализованы:
  * 1) тест-кейсы успешной авторизации
- * 2) тест-кейты с неверными входными данными, проверяющие обработку неверных данных
+ * 2) тест-кейсы с неверными входными данными выполняются по таблице в {@link LoginMatrixTest}
  * 3) тест-кейсы, проверяющие работу восстановления пароля
  */
 public class LoginTest extends BaseTest {
@@ -22,12 +23,7 @@ public class LoginTest extends BaseTest {
     private static final String RIGHT_LOGIN_WITH_BLANK_SPACE = " " + RIGHT_LOGIN + " ";
     private static final String RIGHT_PASSWORD_WITH_BLANK_SPACE = " " + RIGHT_PASSWORD + " ";
     private static final Keys tabKey = Keys.TAB;
-    private static final Keys enterKey = Keys.ENTER;
     private static final String WRONG_LOGIN = "wqerasdfzvxcvhdgf";
-    private static final String WRONG_PASSWORD = "pass1234";
-    private static final String EMPTY_STRING = "";
-    private static final String ALERT_WINDOW_TEXT_EMPTY = "Неверные данные для авторизации.";
-    private static final String ALERT_WINDOW_TEXT_WRONG = "Неверные данные для авторизации";
     private static final String ALERT_RECOVERING_USER_NAME = "Пользователь с таким именем не найден.";
     private static final String SUCCESS_RECOVERING_USER_NAME = "На ваш электронный адрес отправлена " +
             "инструкция по восстановлению пароля.";
@@ -47,21 +43,7 @@ public class LoginTest extends BaseTest {
         if (isPasswordShown) {
             loginPage.clickShowPasswordButton();
         }
-        loginPage.fillLoginInput(login);
-        loginPage.fillPasswordInput(password);
-        return loginPage.clickLoginButton();
-    }
-
-    /**
-     * Метод для обработки всплывающих окон с оповещением о неверного логина или пароля
-     * Получает текст из окна, закрывает его и возвращает текст
-     *
-     * @return - текст из всплывающего окна
-     */
-    private String handleAlert() {
-        String alertText = switchTo().alert().getText();
-        switchTo().alert().accept();
-        return alertText;
+        return loginPage.submit(new Credentials(login, password));
     }
 
     /**
@@ -69,14 +51,12 @@ public class LoginTest extends BaseTest {
      * Переходит на страницу восстановления пароля, логин, нажимает кнопку "отправить"
      *
      * @param login - логин для которого требуется восстановить пароль
-     * @return - экземпляр страницы восстановления пароля
+     * @return - форма восстановления пароля
      */
-    private PasswordRecoverPage recoverPassword(String login) {
-        LoginPage loginPage = BasePage.page(LoginPage.class);
-        PasswordRecoverPage passwordRecoverPage = loginPage.clickForgetPasswordButton();
-        passwordRecoverPage.fillLoginInput(login);
-        passwordRecoverPage.clickSendRecoverEmailButton();
-        return passwordRecoverPage;
+    private PasswordRecoverForm recoverPassword(String login) {
+        PasswordRecoverForm passwordRecoverForm = passwordRecoverForm();
+        passwordRecoverForm.recover(login);
+        return passwordRecoverForm;
     }
 
     /**
@@ -89,47 +69,6 @@ public class LoginTest extends BaseTest {
         assertTrue(homePage.isAuthorized(), "Ошибка при авторизации с верным логином и паролем");
     }
 
-    /**
-     * Проверяет авторизацию с неверным логином.
-     * Убеждается, что появляется предупреждающее окно с текстом о неверных данных.
-     */
-    @Test
-    public void wrongLoginTest() {
-        loginAndSubmit(WRONG_LOGIN, WRONG_PASSWORD, PASSWORD_NOT_SHOWN);
-        assertEquals(ALERT_WINDOW_TEXT_WRONG, handleAlert(), "Ошибка обработки неверного логина");
-    }
-
-
-    /**
-     * Проверяет авторизацию с верным логином и неверным паролем.
-     * Убеждается, что появляется предупреждающее окно с текстом о неверных данных.
-     */
-    @Test
-    public void wrongPasswordTest() {
-        loginAndSubmit(RIGHT_LOGIN, WRONG_PASSWORD, PASSWORD_NOT_SHOWN);
-        assertEquals(ALERT_WINDOW_TEXT_WRONG, handleAlert(), "Ошибка обработки неверного пароля");
-    }
-
-    /**
-     * Проверяет авторизацию с пустым логином и паролем.
-     * Убеждается, что появляется предупреждающее окно с текстом о неверных данных.
-     */
-    @Test
-    public void emptyLoginTest() {
-        loginAndSubmit(EMPTY_STRING, EMPTY_STRING, PASSWORD_NOT_SHOWN);
-        assertEquals(ALERT_WINDOW_TEXT_EMPTY, handleAlert(), "Ошибка обработки пустого логина.");
-    }
-
-    /**
-     * Проверяет авторизацию с неверным логином и пустым паролем.
-     * Убеждается, что появляется предупреждающее окно с текстом о неверных данных.
-     */
-    @Test
-    public void emptyPasswordTest() {
-        loginAndSubmit(WRONG_LOGIN, EMPTY_STRING, PASSWORD_NOT_SHOWN);
-        assertEquals(ALERT_WINDOW_TEXT_EMPTY, handleAlert(), "Ошибка обработки пустого пароля.");
-    }
-
     /**
      * Проверяет успешную авторизацию с логином, содержащим пробелы перед и после.
      * Убеждается, что пользователь успешно авторизован на домашней странице.
@@ -187,8 +126,7 @@ public class LoginTest extends BaseTest {
         loginPage.fillCurrent(RIGHT_LOGIN);
         loginPage.pressKey(tabKey);
         loginPage.fillCurrent(RIGHT_PASSWORD);
-        loginPage.pressKey(enterKey);
-        HomePage homePage = HomePage.page(HomePage.class);
+        HomePage homePage = loginPage.submitByEnter();
         assertTrue(homePage.isAuthorized(), "Ошибка при авторизации с использованием " +
                 "горячих клавиш");
     }
@@ -199,8 +137,8 @@ public class LoginTest extends BaseTest {
      */
     @Test
     public void existsUserRecoverPasswordTest() {
-        PasswordRecoverPage passwordRecoverPage = recoverPassword(RIGHT_LOGIN);
-        assertEquals(SUCCESS_RECOVERING_USER_NAME, passwordRecoverPage.getRecoveringUserSuccessMessage(),
+        PasswordRecoverForm passwordRecoverForm = recoverPassword(RIGHT_LOGIN);
+        assertEquals(SUCCESS_RECOVERING_USER_NAME, passwordRecoverForm.getRecoveringUserSuccessMessage(),
                 "Пользователь с логином " + RIGHT_LOGIN + " не существует");
     }
 
@@ -210,8 +148,8 @@ public class LoginTest extends BaseTest {
      */
     @Test
     public void unexistsUserRecoverPasswordTest() {
-        PasswordRecoverPage passwordRecoverPage = recoverPassword(WRONG_LOGIN);
-        assertEquals(ALERT_RECOVERING_USER_NAME, passwordRecoverPage.getRecoveringUserAlertMessage(),
+        PasswordRecoverForm passwordRecoverForm = recoverPassword(WRONG_LOGIN);
+        assertEquals(ALERT_RECOVERING_USER_NAME, passwordRecoverForm.getRecoveringUserAlertMessage(),
                 "Пользователь с логином " + WRONG_LOGIN + " не существует");
     }
 }
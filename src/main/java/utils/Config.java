@@ -0,0 +1,125 @@
+package utils;
+
+import org.apache.logging.log4j.LogManager;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Доступ к настройкам из config.properties.
+ * Любое значение может быть переопределено системным свойством с тем же именем (-Dkey=value),
+ * что позволяет менять параметры запуска без правки файла.
+ */
+public final class Config {
+    private final static String PROPERTIES_PATH = "config.properties";
+    private final static String LIST_SEPARATOR = ",";
+    private final static Properties properties;
+
+    /**
+     * Блок статической инициализации файла с настройками
+     */
+    static {
+        properties = new Properties();
+        try (FileInputStream fis = new FileInputStream(PROPERTIES_PATH)) {
+            properties.load(fis);
+        } catch (IOException e) {
+            LogManager.getLogger(Config.class).error("Failed to load properties from {}",
+                    PROPERTIES_PATH, e);
+            throw new RuntimeException("open properties file error");
+        }
+    }
+
+    private Config() {
+    }
+
+    /**
+     * Возвращает загруженные из файла настройки без учёта системных свойств.
+     *
+     * @return настройки из config.properties.
+     */
+    public static Properties properties() {
+        return properties;
+    }
+
+    /**
+     * Возвращает имена настроек с заданным префиксом из config.properties и системных свойств.
+     *
+     * @param prefix префикс имени, например budget.
+     * @return имена настроек по алфавиту.
+     */
+    public static Set<String> keys(String prefix) {
+        Set<String> keys = new TreeSet<>();
+        properties.stringPropertyNames().stream().filter(key -> key.startsWith(prefix)).forEach(keys::add);
+        System.getProperties().stringPropertyNames().stream().filter(key -> key.startsWith(prefix))
+                .forEach(keys::add);
+        return keys;
+    }
+
+    /**
+     * Возвращает значение настройки с учётом переопределения системным свойством.
+     *
+     * @param key имя настройки.
+     * @return значение настройки или null, если она не задана.
+     */
+    public static String get(String key) {
+        return System.getProperty(key, properties.getProperty(key));
+    }
+
+    /**
+     * Возвращает значение настройки или значение по умолчанию, если она не задана.
+     *
+     * @param key имя настройки.
+     * @param defaultValue значение по умолчанию.
+     * @return значение настройки.
+     */
+    public static String get(String key, String defaultValue) {
+        String value = get(key);
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    /**
+     * Типизированные варианты {@link #get(String, String)}: при отсутствии настройки
+     * возвращают значение по умолчанию.
+     */
+    public static int getInt(String key, int defaultValue) {
+        String value = get(key);
+        return value == null || value.isBlank() ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    public static long getLong(String key, long defaultValue) {
+        String value = get(key);
+        return value == null || value.isBlank() ? defaultValue : Long.parseLong(value.trim());
+    }
+
+    public static double getDouble(String key, double defaultValue) {
+        String value = get(key);
+        return value == null || value.isBlank() ? defaultValue : Double.parseDouble(value.trim());
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = get(key);
+        return value == null || value.isBlank() ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+
+    /**
+     * Возвращает список значений, перечисленных через запятую.
+     *
+     * @param key имя настройки.
+     * @return список непустых значений, пустой список, если настройка не задана.
+     */
+    public static List<String> getList(String key) {
+        String value = get(key);
+        if (value == null || value.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(value.split(LIST_SEPARATOR))
+                .map(String::trim)
+                .filter(item -> !item.isEmpty())
+                .toList();
+    }
+}
@@ -0,0 +1,28 @@
+package utils;
+
+/**
+ * Учётные данные пользователя.
+ * Пароль не выводится в toString, чтобы не попадать в логи.
+ *
+ * @param login логин пользователя.
+ * @param password пароль пользователя.
+ */
+public record Credentials(String login, String password) {
+    private static final String HIDDEN_PASSWORD = "******";
+
+    @Override
+    public String toString() {
+        return "Credentials[login=" + login + ", password=" + HIDDEN_PASSWORD + "]";
+    }
+
+    /**
+     * Скрывает секрет (пароль или текст, который может быть паролем) для вывода в лог.
+     * Длина секрета тоже не выводится, отличается только пустое значение.
+     *
+     * @param secret секрет.
+     * @return замена для лога.
+     */
+    public static String hide(String secret) {
+        return secret == null || secret.isEmpty() ? "" : HIDDEN_PASSWORD;
+    }
+}
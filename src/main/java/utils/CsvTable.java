@@ -0,0 +1,104 @@
+package utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Чтение таблиц тестовых данных в формате CSV. Первая непустая строка - заголовок, строки, начинающиеся с #,
+ * и пустые строки пропускаются. Значения с запятыми или пробелами по краям берутся в двойные кавычки,
+ * кавычка внутри значения удваивается.
+ */
+public final class CsvTable {
+
+    private CsvTable() {
+    }
+
+    /**
+     * Читает таблицу из файла, а если файла нет - из ресурса с тем же путём.
+     *
+     * @param location путь к файлу или ресурсу, например data/login-matrix.csv.
+     * @return строки таблицы: значения по именам столбцов в порядке заголовка.
+     */
+    public static List<Map<String, String>> read(String location) {
+        Path path = Path.of(location);
+        try {
+            if (Files.isRegularFile(path)) {
+                return parse(Files.readString(path, StandardCharsets.UTF_8), location);
+            }
+            try (InputStream stream = CsvTable.class.getResourceAsStream("/" + location)) {
+                if (stream == null) {
+                    throw new IllegalStateException("CSV table not found: " + location);
+                }
+                return parse(new String(stream.readAllBytes(), StandardCharsets.UTF_8), location);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read CSV table " + location, e);
+        }
+    }
+
+    private static List<Map<String, String>> parse(String text, String location) {
+        List<String> header = null;
+        List<Map<String, String>> rows = new ArrayList<>();
+        int lineNumber = 0;
+        for (String line : text.split("\\R")) {
+            lineNumber++;
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            List<String> values = parseLine(line, location, lineNumber);
+            if (header == null) {
+                header = values;
+                continue;
+            }
+            if (values.size() != header.size()) {
+                throw new IllegalStateException(String.format("%s:%d: expected %d values, found %d", location,
+                        lineNumber, header.size(), values.size()));
+            }
+            Map<String, String> row = new LinkedHashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                row.put(header.get(i), values.get(i));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static List<String> parseLine(String line, String location, int lineNumber) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalStateException(String.format("%s:%d: unterminated quoted value", location, lineNumber));
+        }
+        values.add(value.toString());
+        return values;
+    }
+}
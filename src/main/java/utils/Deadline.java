@@ -0,0 +1,136 @@
+package utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utils.exceptions.DeadlineExceededException;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Ограничение времени теста, выполняемого в текущем потоке.
+ * Устанавливается в BaseTest перед каждым тестом на deadline.testMillis. Каждое ожидание (элемента,
+ * загрузки страницы, оповещения) сокращается до оставшегося времени, а после его исчерпания тест
+ * завершается {@link DeadlineExceededException}. Время ожиданий накапливается по видам, и тесты дольше
+ * deadline.slowMillis выводят в лог, на что было потрачено время.
+ */
+public final class Deadline {
+    private static final String BUDGET_PROPERTY = "deadline.testMillis";
+    private static final String SLOW_PROPERTY = "deadline.slowMillis";
+    private static final int BREAKDOWN_SIZE = 10;
+    private static final ThreadLocal<Deadline> current = new ThreadLocal<>();
+    private static final Logger logger = LogManager.getLogger();
+
+    private final long startNanos = System.nanoTime();
+    private final long budgetNanos;
+    /**
+     * Потраченное время и число вызовов по видам ожиданий.
+     */
+    private final Map<String, long[]> spentByActivity = new LinkedHashMap<>();
+
+    private Deadline(Duration budget) {
+        this.budgetNanos = budget.toNanos();
+    }
+
+    /**
+     * Устанавливает ограничение времени для теста в текущем потоке. При deadline.testMillis=0 время
+     * не ограничивается.
+     */
+    public static void start() {
+        long budgetMillis = Config.getLong(BUDGET_PROPERTY, 120000);
+        if (budgetMillis > 0) {
+            current.set(new Deadline(Duration.ofMillis(budgetMillis)));
+        } else {
+            current.remove();
+        }
+    }
+
+    /**
+     * Снимает ограничение времени и, если тест выполнялся дольше deadline.slowMillis, выводит в лог
+     * распределение потраченного времени.
+     */
+    public static void finish() {
+        Deadline deadline = current.get();
+        current.remove();
+        if (deadline == null) {
+            return;
+        }
+        long elapsedMillis = deadline.elapsedNanos() / 1_000_000;
+        if (elapsedMillis > Config.getLong(SLOW_PROPERTY, 30000)) {
+            logger.warn("slow test took {} ms: {}", elapsedMillis, deadline.breakdown());
+        }
+    }
+
+    /**
+     * Сокращает время ожидания до оставшегося времени теста.
+     *
+     * @param timeout желаемое время ожидания.
+     * @return время ожидания, не превышающее оставшееся время теста.
+     * @throws DeadlineExceededException если время теста уже исчерпано.
+     */
+    public static Duration bound(Duration timeout) {
+        Deadline deadline = current.get();
+        if (deadline == null) {
+            return timeout;
+        }
+        deadline.throwIfExpired();
+        Duration remaining = Duration.ofNanos(deadline.budgetNanos - deadline.elapsedNanos());
+        return remaining.compareTo(timeout) < 0 ? remaining : timeout;
+    }
+
+    /**
+     * Проверяет, что время теста не исчерпано.
+     *
+     * @throws DeadlineExceededException если время теста исчерпано.
+     */
+    public static void check() {
+        Deadline deadline = current.get();
+        if (deadline != null) {
+            deadline.throwIfExpired();
+        }
+    }
+
+    /**
+     * Учитывает время, потраченное на ожидание или переход.
+     *
+     * @param activity вид ожидания, например "wait //div[@class='alert']" или "open".
+     * @param activityStartNanos значение System.nanoTime() в начале ожидания.
+     */
+    public static void record(String activity, long activityStartNanos) {
+        Deadline deadline = current.get();
+        if (deadline != null) {
+            long[] spent = deadline.spentByActivity.computeIfAbsent(activity, key -> new long[2]);
+            spent[0] += System.nanoTime() - activityStartNanos;
+            spent[1]++;
+        }
+    }
+
+    private long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    private void throwIfExpired() {
+        if (elapsedNanos() >= budgetNanos) {
+            throw new DeadlineExceededException("Test exceeded its deadline of " + budgetNanos / 1_000_000
+                    + " ms: " + breakdown());
+        }
+    }
+
+    /**
+     * Описание потраченного времени: самые долгие виды ожиданий и остаток, не относящийся к ожиданиям.
+     */
+    private String breakdown() {
+        long accountedNanos = spentByActivity.values().stream().mapToLong(spent -> spent[0]).sum();
+        String activities = spentByActivity.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, long[]> entry) -> entry.getValue()[0]).reversed())
+                .limit(BREAKDOWN_SIZE)
+                .map(entry -> entry.getKey() + " " + entry.getValue()[0] / 1_000_000 + " ms (x"
+                        + entry.getValue()[1] + ")")
+                .collect(Collectors.joining("; "));
+        return activities + (activities.isEmpty() ? "" : "; ") + "other "
+                + Math.max(0, elapsedNanos() - accountedNanos) / 1_000_000 + " ms";
+    }
+}
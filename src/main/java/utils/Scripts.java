@@ -0,0 +1,41 @@
+package utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Загрузка JavaScript, выполняемого в браузере, из ресурсов src/main/resources/js.
+ * Скрипты читаются один раз и кэшируются.
+ */
+public final class Scripts {
+    private static final String SCRIPTS_DIRECTORY = "/js/";
+    private static final Map<String, String> cache = new ConcurrentHashMap<>();
+
+    private Scripts() {
+    }
+
+    /**
+     * Возвращает текст скрипта по имени файла.
+     *
+     * @param name имя файла в каталоге js ресурсов.
+     * @return текст скрипта.
+     */
+    public static String load(String name) {
+        return cache.computeIfAbsent(name, Scripts::read);
+    }
+
+    private static String read(String name) {
+        try (InputStream stream = Scripts.class.getResourceAsStream(SCRIPTS_DIRECTORY + name)) {
+            if (stream == null) {
+                throw new IllegalStateException("Script resource not found: " + name);
+            }
+            return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package utils;
+
+/**
+ * Идентификатор теста, выполняемого в текущем потоке.
+ * Устанавливается в BaseTest перед каждым тестом и используется для привязки собираемых
+ * во время теста данных (метрик, трассировок и т.п.) к тесту.
+ */
+public final class TestContext {
+    private static final String NO_TEST = "no-test";
+    private static final ThreadLocal<String> currentTest = new ThreadLocal<>();
+
+    private TestContext() {
+    }
+
+    /**
+     * Отмечает начало теста в текущем потоке.
+     *
+     * @param testId идентификатор теста в виде Класс.метод.
+     */
+    public static void start(String testId) {
+        currentTest.set(testId);
+    }
+
+    /**
+     * Отмечает окончание теста в текущем потоке.
+     */
+    public static void finish() {
+        currentTest.remove();
+    }
+
+    /**
+     * Возвращает идентификатор текущего теста.
+     *
+     * @return идентификатор теста или no-test, если поток не выполняет тест.
+     */
+    public static String currentTest() {
+        String testId = currentTest.get();
+        return testId == null ? NO_TEST : testId;
+    }
+}
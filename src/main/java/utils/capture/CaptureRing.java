@@ -0,0 +1,51 @@
+package utils.capture;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Кольцевой буфер последних кадров одного теста, ограниченный числом кадров и объёмом памяти.
+ * При переполнении вытесняются самые старые кадры. Принадлежит потоку теста.
+ */
+final class CaptureRing {
+    /**
+     * Кадр: уменьшенный снимок экрана и DOM страницы в момент шага теста.
+     */
+    record Frame(long timestampMillis, String label, byte[] screenshot, String screenshotExtension, String dom) {
+        long sizeBytes() {
+            return (screenshot == null ? 0 : screenshot.length) + (dom == null ? 0 : 2L * dom.length());
+        }
+    }
+
+    private final int maxFrames;
+    private final long maxBytes;
+    private final Deque<Frame> frames = new ArrayDeque<>();
+    private long sizeBytes;
+    long lastCaptureNanos;
+    Double viewportWidth;
+    Double viewportHeight;
+
+    CaptureRing(int maxFrames, long maxBytes, long intervalNanos) {
+        this.maxFrames = maxFrames;
+        this.maxBytes = maxBytes;
+        this.lastCaptureNanos = System.nanoTime() - intervalNanos;
+    }
+
+    void add(Frame frame) {
+        frames.addLast(frame);
+        sizeBytes += frame.sizeBytes();
+        while (frames.size() > 1 && (frames.size() > maxFrames || sizeBytes > maxBytes)) {
+            sizeBytes -= frames.removeFirst().sizeBytes();
+        }
+    }
+
+    boolean isEmpty() {
+        return frames.isEmpty();
+    }
+
+    List<Frame> frames() {
+        return new ArrayList<>(frames);
+    }
+}
@@ -0,0 +1,225 @@
+package utils.capture;
+
+import com.codeborne.selenide.WebDriverRunner;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.HasCdp;
+import utils.Config;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Материалы для разбора упавших тестов: последние снимки экрана и DOM страницы.
+ * На шагах теста (открытие страницы, нажатие, ввод) не чаще раза в capture.intervalMillis снимается
+ * уменьшенный снимок экрана (в Chromium - JPEG с масштабом capture.scale и качеством capture.jpegQuality)
+ * и DOM. Кадры хранятся в памяти в кольцевом буфере теста: не более capture.frames кадров и capture.maxBytes
+ * байт. Если тест упал, снимается последний кадр, а буфер сжимается в target/failures/&lt;тест&gt;.zip
+ * фоновым потоком. Для прошедших тестов буфер просто забывается, на диск ничего не пишется.
+ * Отключить: capture.enabled=false.
+ */
+public final class FailureArtifacts {
+    private static final String ENABLED_PROPERTY = "capture.enabled";
+    private static final String INTERVAL_PROPERTY = "capture.intervalMillis";
+    private static final String FRAMES_PROPERTY = "capture.frames";
+    private static final String MAX_BYTES_PROPERTY = "capture.maxBytes";
+    private static final String SCALE_PROPERTY = "capture.scale";
+    private static final String JPEG_QUALITY_PROPERTY = "capture.jpegQuality";
+    private static final String RESULTS_DIR_PROPERTY = "capture.resultsDir";
+    private static final String DEFAULT_RESULTS_DIR = "target/failures";
+    private static final String ARCHIVE_EXTENSION = ".zip";
+    private static final int MAX_FILE_NAME_LENGTH = 60;
+    private static final long FLUSH_TIMEOUT_SECONDS = 30;
+    private static final boolean enabled = Config.getBoolean(ENABLED_PROPERTY, true);
+    private static final long intervalNanos = Config.getLong(INTERVAL_PROPERTY, 1000) * 1_000_000;
+    private static final int maxFrames = Config.getInt(FRAMES_PROPERTY, 10);
+    private static final long maxBytes = Config.getLong(MAX_BYTES_PROPERTY, 8_000_000);
+    private static final double scale = Config.getDouble(SCALE_PROPERTY, 0.5);
+    private static final int jpegQuality = Config.getInt(JPEG_QUALITY_PROPERTY, 50);
+    private static final Path resultsDirectory = Path.of(Config.get(RESULTS_DIR_PROPERTY, DEFAULT_RESULTS_DIR));
+    private static final ThreadLocal<CaptureRing> rings = new ThreadLocal<>();
+    private static final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "failure-artifacts");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final Logger logger = LogManager.getLogger();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(FailureArtifacts::awaitWrites));
+    }
+
+    private FailureArtifacts() {
+    }
+
+    /**
+     * Начинает буфер кадров теста в текущем потоке.
+     */
+    public static void start() {
+        if (enabled) {
+            rings.set(new CaptureRing(maxFrames, maxBytes, intervalNanos));
+        }
+    }
+
+    /**
+     * Снимает кадр шага теста, если с предыдущего кадра прошло не меньше capture.intervalMillis.
+     * Ошибки снятия не влияют на тест.
+     *
+     * @param label описание шага.
+     */
+    public static void capture(String label) {
+        CaptureRing ring = rings.get();
+        if (ring != null && System.nanoTime() - ring.lastCaptureNanos >= intervalNanos) {
+            captureFrame(ring, label);
+        }
+    }
+
+    /**
+     * Снимает кадр в момент падения теста, пока браузер ещё не возвращён в пул.
+     */
+    public static void captureFailure() {
+        CaptureRing ring = rings.get();
+        if (ring != null) {
+            captureFrame(ring, "failure");
+        }
+    }
+
+    /**
+     * Завершает буфер теста. Для упавшего теста кадры и причина падения сжимаются в архив фоновым потоком,
+     * для остальных буфер забывается.
+     *
+     * @param testId идентификатор теста.
+     * @param failure причина падения или null, если тест не упал.
+     */
+    public static void finish(String testId, Throwable failure) {
+        CaptureRing ring = rings.get();
+        rings.remove();
+        if (ring == null || failure == null || ring.isEmpty()) {
+            return;
+        }
+        List<CaptureRing.Frame> frames = ring.frames();
+        writer.execute(() -> write(testId, frames, failure));
+    }
+
+    private static void captureFrame(CaptureRing ring, String label) {
+        if (!WebDriverRunner.hasWebDriverStarted()) {
+            return;
+        }
+        ring.lastCaptureNanos = System.nanoTime();
+        WebDriver driver = WebDriverRunner.getWebDriver();
+        try {
+            byte[] screenshot;
+            String extension;
+            if (driver instanceof HasCdp cdp) {
+                screenshot = scaledScreenshot(cdp, ring);
+                extension = "jpg";
+            } else {
+                screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+                extension = "png";
+            }
+            ring.add(new CaptureRing.Frame(System.currentTimeMillis(), label, screenshot, extension,
+                    driver.getPageSource()));
+        } catch (WebDriverException e) {
+            logger.debug("Frame {} is not captured: {}", label, e.getMessage());
+        }
+    }
+
+    /**
+     * Снимок видимой области в JPEG с уменьшением на стороне браузера. Размер области запрашивается один раз
+     * за тест.
+     */
+    private static byte[] scaledScreenshot(HasCdp cdp, CaptureRing ring) {
+        if (ring.viewportWidth == null) {
+            Map<String, Object> metrics = cdp.executeCdpCommand("Page.getLayoutMetrics", Map.of());
+            Map<?, ?> viewport = (Map<?, ?>) metrics.get("cssLayoutViewport");
+            ring.viewportWidth = ((Number) viewport.get("clientWidth")).doubleValue();
+            ring.viewportHeight = ((Number) viewport.get("clientHeight")).doubleValue();
+        }
+        Map<String, Object> result = cdp.executeCdpCommand("Page.captureScreenshot", Map.of(
+                "format", "jpeg",
+                "quality", jpegQuality,
+                "optimizeForSpeed", true,
+                "clip", Map.of("x", 0, "y", 0, "width", ring.viewportWidth, "height", ring.viewportHeight,
+                        "scale", scale)));
+        return Base64.getDecoder().decode((String) result.get("data"));
+    }
+
+    /**
+     * Записывает архив: кадры по порядку (снимок и DOM) и failure.txt с причиной падения и списком кадров.
+     */
+    private static void write(String testId, List<CaptureRing.Frame> frames, Throwable failure) {
+        Path archive = resultsDirectory.resolve(testId + ARCHIVE_EXTENSION);
+        SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm:ss.SSS");
+        StringWriter index = new StringWriter();
+        PrintWriter indexWriter = new PrintWriter(index);
+        try {
+            Files.createDirectories(resultsDirectory);
+            try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(archive))) {
+                int number = 0;
+                for (CaptureRing.Frame frame : frames) {
+                    String name = String.format("%02d-%s", ++number, fileName(frame.label()));
+                    indexWriter.printf("%s %s%n", timeFormat.format(new Date(frame.timestampMillis())), name);
+                    if (frame.screenshot() != null) {
+                        writeEntry(zip, name + "." + frame.screenshotExtension(), frame.screenshot());
+                    }
+                    if (frame.dom() != null) {
+                        writeEntry(zip, name + ".html", frame.dom().getBytes(StandardCharsets.UTF_8));
+                    }
+                }
+                indexWriter.println();
+                failure.printStackTrace(indexWriter);
+                indexWriter.flush();
+                writeEntry(zip, "failure.txt", index.toString().getBytes(StandardCharsets.UTF_8));
+            }
+            logger.info("{} frames of failed test {} written to {}", frames.size(), testId, archive);
+        } catch (IOException e) {
+            logger.warn("Failed to write failure artifacts of {}", testId, e);
+        }
+    }
+
+    /**
+     * Имя файла кадра из описания шага: недопустимые символы заменяются, длина ограничивается.
+     */
+    private static String fileName(String label) {
+        String name = label.replaceAll("[^\\w.-]+", "_");
+        return name.length() > MAX_FILE_NAME_LENGTH ? name.substring(0, MAX_FILE_NAME_LENGTH) : name;
+    }
+
+    private static void writeEntry(ZipOutputStream zip, String name, byte[] content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content);
+        zip.closeEntry();
+    }
+
+    /**
+     * Дожидается записи архивов, поставленных в очередь перед завершением процесса.
+     */
+    private static void awaitWrites() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(FLUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warn("Failure artifacts were not written in {} s", FLUSH_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package utils.driver;
+
+import com.codeborne.selenide.WebDriverRunner;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Alert;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoAlertPresentException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.UnhandledAlertException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import utils.Config;
+import utils.Scripts;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Оповещения страницы (alert, confirm) без модальных окон.
+ * В браузеры Chromium при создании устанавливается скрипт перехвата (alert-hook.js), который вместо окна
+ * записывает сообщение в очередь страницы, поэтому оповещение не блокирует остальные команды WebDriver, а его
+ * текст читается одним вызовом. Если перехват недоступен (другой браузер, alerts.hook=false) или страница всё же
+ * показала окно, используется обычная обработка окна оповещения.
+ */
+public final class Alerts {
+    private static final String HOOK_PROPERTY = "alerts.hook";
+    private static final String HOOK_SCRIPT = "alert-hook.js";
+    private static final String READ_SCRIPT = "alert-read.js";
+    private static final String CLEAR_SCRIPT =
+            "if (window.__mirapolisAlertHook) { window.__mirapolisAlertHook.clear(); }";
+    /**
+     * Скрипт чтения прерывается, если он начался в документе, который закрылся переходом после отправки формы.
+     * Тогда чтение повторяется в новом документе.
+     */
+    private static final int READ_ATTEMPTS = 3;
+    private static final boolean hookEnabled = Config.getBoolean(HOOK_PROPERTY, true);
+    private static final Logger logger = LogManager.getLogger();
+
+    private Alerts() {
+    }
+
+    /**
+     * Устанавливает перехват оповещений во все документы, которые откроет браузер.
+     *
+     * @param driver созданный браузер.
+     */
+    static void install(WebDriver driver) {
+        if (!hookEnabled) {
+            return;
+        }
+        if (!(driver instanceof ChromiumDriver chromium)) {
+            logger.info("Alert hook is supported only in Chromium based browsers, native alerts are used");
+            return;
+        }
+        chromium.executeCdpCommand("Page.addScriptToEvaluateOnNewDocument",
+                Map.of("source", Scripts.load(HOOK_SCRIPT)));
+        logger.debug("alert hook installed");
+    }
+
+    /**
+     * Ожидает следующее оповещение текущей страницы и подтверждает его.
+     *
+     * @param timeout время ожидания.
+     * @return текст оповещения или пустой Optional, если оповещения не было.
+     */
+    public static Optional<String> next(Duration timeout) {
+        WebDriver driver = WebDriverRunner.getWebDriver();
+        long deadlineNanos = System.nanoTime() + timeout.toNanos();
+        for (int attempt = 1; hookEnabled && attempt <= READ_ATTEMPTS; attempt++) {
+            try {
+                Object result = ((JavascriptExecutor) driver).executeAsyncScript(Scripts.load(READ_SCRIPT),
+                        remainingMillis(deadlineNanos));
+                if (result == null) {
+                    return Optional.empty();
+                }
+                Map<?, ?> alert = (Map<?, ?>) result;
+                if (Boolean.FALSE.equals(alert.get("hooked"))) {
+                    break;
+                }
+                logger.info("{} captured without a modal window: {}", alert.get("type"), alert.get("message"));
+                return Optional.of(String.valueOf(alert.get("message")));
+            } catch (UnhandledAlertException e) {
+                logger.info("native alert shown despite the hook: {}", e.getAlertText());
+                if (e.getAlertText() != null) {
+                    acceptIfPresent(driver);
+                    return Optional.of(e.getAlertText());
+                }
+                break;
+            } catch (WebDriverException e) {
+                logger.debug("Alert read interrupted, retrying: {}", e.getMessage());
+            }
+        }
+        return acceptNative(driver, deadlineNanos);
+    }
+
+    /**
+     * Забывает перехваченные, но не прочитанные оповещения и закрывает открытое окно оповещения, если оно есть.
+     */
+    public static void clear() {
+        WebDriver driver = WebDriverRunner.getWebDriver();
+        try {
+            driver.switchTo().alert().dismiss();
+            logger.info("pending alert dismissed");
+        } catch (NoAlertPresentException e) {
+            logger.debug("no pending alert");
+        }
+        if (hookEnabled) {
+            ((JavascriptExecutor) driver).executeScript(CLEAR_SCRIPT);
+        }
+    }
+
+    /**
+     * Обычная обработка: ожидает окно оповещения, запоминает текст и подтверждает его.
+     */
+    private static Optional<String> acceptNative(WebDriver driver, long deadlineNanos) {
+        try {
+            Alert alert = new WebDriverWait(driver, Duration.ofMillis(remainingMillis(deadlineNanos)))
+                    .until(ExpectedConditions.alertIsPresent());
+            String text = alert.getText();
+            alert.accept();
+            return Optional.of(text);
+        } catch (TimeoutException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static void acceptIfPresent(WebDriver driver) {
+        try {
+            driver.switchTo().alert().accept();
+        } catch (NoAlertPresentException e) {
+            logger.debug("alert already closed by the browser");
+        }
+    }
+
+    private static long remainingMillis(long deadlineNanos) {
+        return Math.max(0, (deadlineNanos - System.nanoTime()) / 1_000_000);
+    }
+}
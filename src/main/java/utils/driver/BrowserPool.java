@@ -0,0 +1,151 @@
+package utils.driver;
+
+import com.codeborne.selenide.WebDriverRunner;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoAlertPresentException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import utils.Config;
+
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Ограниченный пул браузеров для параллельного запуска тестов.
+ * Каждый поток-исполнитель арендует браузер на время теста, браузер привязывается к потоку через
+ * WebDriverRunner и после теста не закрывается, а очищается и возвращается в пул.
+ */
+public final class BrowserPool {
+    private static final String POOL_SIZE_PROPERTY = "config.browserPoolSize";
+    private static final String CLEAR_STORAGE_SCRIPT =
+            "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}";
+    private static final Logger logger = LogManager.getLogger();
+    private static volatile BrowserPool sharedPool;
+
+    private final Semaphore permits;
+    private final BlockingDeque<WebDriver> idleDrivers = new LinkedBlockingDeque<>();
+    private final Set<WebDriver> allDrivers = ConcurrentHashMap.newKeySet();
+    private final ThreadLocal<WebDriver> leasedDriver = new ThreadLocal<>();
+
+    /**
+     * Создаёт пул с указанным максимальным количеством одновременно запущенных браузеров.
+     *
+     * @param capacity максимальное число браузеров.
+     */
+    public BrowserPool(int capacity) {
+        this.permits = new Semaphore(capacity, true);
+    }
+
+    /**
+     * Возвращает общий для всех тестов пул. Размер задаётся настройкой config.browserPoolSize,
+     * по умолчанию равен числу ядер. Браузеры пула закрываются при завершении JVM.
+     *
+     * @return общий пул браузеров.
+     */
+    public static BrowserPool shared() {
+        if (sharedPool == null) {
+            synchronized (BrowserPool.class) {
+                if (sharedPool == null) {
+                    int capacity = Config.getInt(POOL_SIZE_PROPERTY, Runtime.getRuntime().availableProcessors());
+                    BrowserPool pool = new BrowserPool(capacity);
+                    Runtime.getRuntime().addShutdownHook(new Thread(pool::shutdown));
+                    logger.info("browser pool created with capacity {}", capacity);
+                    sharedPool = pool;
+                }
+            }
+        }
+        return sharedPool;
+    }
+
+    /**
+     * Арендует браузер для текущего потока и делает его текущим драйвером Selenide.
+     * Если все браузеры заняты, ожидает освобождения одного из них.
+     *
+     * @return арендованный браузер.
+     */
+    public WebDriver lease() {
+        if (leasedDriver.get() != null) {
+            throw new IllegalStateException("Browser is already leased by thread " + Thread.currentThread().getName());
+        }
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a free browser", e);
+        }
+        WebDriver driver = idleDrivers.pollFirst();
+        try {
+            if (driver == null) {
+                driver = DriverFactory.create();
+                allDrivers.add(driver);
+                logger.info("new browser started, pool size {}", allDrivers.size());
+            }
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        leasedDriver.set(driver);
+        WebDriverRunner.setWebDriver(driver);
+        return driver;
+    }
+
+    /**
+     * Возвращает браузер текущего потока в пул. Перед возвратом удаляет cookies и очищает хранилища
+     * страницы. Браузер, который не удалось очистить, закрывается.
+     */
+    public void release() {
+        WebDriver driver = leasedDriver.get();
+        if (driver == null) {
+            return;
+        }
+        leasedDriver.remove();
+        if (reset(driver)) {
+            idleDrivers.offerFirst(driver);
+        } else {
+            allDrivers.remove(driver);
+            quit(driver);
+        }
+        permits.release();
+    }
+
+    /**
+     * Закрывает все браузеры пула.
+     */
+    public void shutdown() {
+        idleDrivers.clear();
+        allDrivers.forEach(BrowserPool::quit);
+        allDrivers.clear();
+    }
+
+    /**
+     * Очищает состояние браузера между тестами: закрывает открытое оповещение,
+     * удаляет cookies и очищает localStorage и sessionStorage.
+     *
+     * @param driver браузер для очистки.
+     * @return true, если очистка прошла успешно, иначе false.
+     */
+    private static boolean reset(WebDriver driver) {
+        try {
+            try {
+                driver.switchTo().alert().dismiss();
+            } catch (NoAlertPresentException ignored) {
+                // оповещения нет, закрывать нечего
+            }
+            driver.manage().deleteAllCookies();
+            ((JavascriptExecutor) driver).executeScript(CLEAR_STORAGE_SCRIPT);
+            return true;
+        } catch (WebDriverException e) {
+            logger.warn("Failed to reset browser, it will be closed", e);
+            return false;
+        }
+    }
+
+    private static void quit(WebDriver driver) {
+        DriverFactory.dispose(driver);
+    }
+}
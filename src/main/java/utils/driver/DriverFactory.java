@@ -0,0 +1,196 @@
+package utils.driver;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumOptions;
+import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import utils.Config;
+import utils.trace.Tracer;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Создаёт экземпляры WebDriver по настройкам из config.properties.
+ * Драйверы создаются явно, а не через Selenide, чтобы пул браузеров мог переиспользовать их между тестами.
+ */
+public final class DriverFactory {
+    private static final String BROWSER_PROPERTY = "web.browser";
+    private static final String RESOLUTION_PROPERTY = "web.resolution";
+    private static final String CONFIG_PAGE_TIMEOUT_PROPERTY = "config.pageLoadTimeout";
+    private static final String CONFIG_PAGE_LOAD_STRATEGY_PROPERTY = "config.pageLoadStrategy";
+    private static final String CONFIG_HEADLESS_PROPERTY = "config.headless";
+    private static final String LEAN_PROFILE_PROPERTY = "browser.lean";
+    private static final String CACHE_DIR_PROPERTY = "browser.cacheDir";
+    private static final String DEFAULT_CACHE_DIR = ".test-data/browser-cache";
+    private static final String CACHE_SLOT_PREFIX = "slot-";
+    private static final String RESOLUTION_SEPARATOR = "x";
+    private static final String CHROME_HEADLESS_ARGUMENT = "--headless=new";
+    private static final String FIREFOX_HEADLESS_ARGUMENT = "-headless";
+    /**
+     * Аргументы облегчённого профиля Chromium: без расширений, фоновых сетевых запросов,
+     * обновления компонентов, синхронизации и прочих служб, не нужных тестам.
+     */
+    private static final List<String> LEAN_CHROMIUM_ARGUMENTS = List.of(
+            "--disable-extensions",
+            "--disable-background-networking",
+            "--disable-component-update",
+            "--disable-default-apps",
+            "--disable-sync",
+            "--disable-client-side-phishing-detection",
+            "--disable-domain-reliability",
+            "--disable-features=Translate,OptimizationHints,MediaRouter,AutofillServerCommunication",
+            "--metrics-recording-only",
+            "--no-default-browser-check",
+            "--no-first-run",
+            "--no-pings",
+            "--mute-audio");
+    /**
+     * Таймаут асинхронных скриптов должен превышать любое ожидание элемента, так как ожидания
+     * по событиям DOM выполняются одним асинхронным скриптом и сами ограничивают своё время.
+     */
+    private static final Duration SCRIPT_TIMEOUT = Duration.ofMinutes(2);
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * Номера занятых каталогов дискового кэша: один каталог не может использоваться двумя браузерами сразу.
+     */
+    private static final NavigableSet<Integer> busyCacheSlots = new ConcurrentSkipListSet<>();
+    private static final Map<WebDriver, Integer> cacheSlotByDriver = new ConcurrentHashMap<>();
+
+    private DriverFactory() {
+    }
+
+    /**
+     * Создаёт новый браузер с размером окна, стратегией и таймаутом загрузки страницы из настроек.
+     * При browser.lean=true браузер Chromium запускается с облегчённым профилем и постоянным дисковым кэшем,
+     * заполненным предыдущими запусками. Команды браузера записываются в трассировку теста (см. {@link Tracer}).
+     * Если браузер не удалось настроить, он закрывается, а его каталог кэша освобождается.
+     *
+     * @return запущенный экземпляр WebDriver.
+     */
+    public static WebDriver create() {
+        String browser = Config.get(BROWSER_PROPERTY, "chrome").toLowerCase();
+        boolean headless = Config.getBoolean(CONFIG_HEADLESS_PROPERTY, false);
+        PageLoadStrategy strategy = PageLoadStrategy.fromString(
+                Config.get(CONFIG_PAGE_LOAD_STRATEGY_PROPERTY, PageLoadStrategy.NORMAL.toString()));
+        Integer cacheSlot = null;
+        WebDriver driver;
+        if (browser.equals("firefox")) {
+            FirefoxOptions options = new FirefoxOptions();
+            options.setPageLoadStrategy(strategy);
+            if (headless) {
+                options.addArguments(FIREFOX_HEADLESS_ARGUMENT);
+            }
+            driver = new FirefoxDriver(options);
+        } else {
+            ChromiumOptions<?> options = switch (browser) {
+                case "chrome" -> new ChromeOptions();
+                case "edge" -> new EdgeOptions();
+                default -> throw new IllegalArgumentException("Unsupported browser: " + browser);
+            };
+            options.setPageLoadStrategy(strategy);
+            if (headless) {
+                options.addArguments(CHROME_HEADLESS_ARGUMENT);
+            }
+            if (Config.getBoolean(LEAN_PROFILE_PROPERTY, true)) {
+                cacheSlot = acquireCacheSlot();
+                options.addArguments(LEAN_CHROMIUM_ARGUMENTS);
+                options.addArguments("--disk-cache-dir=" + cacheDirectory(cacheSlot).toAbsolutePath());
+            }
+            try {
+                driver = options instanceof ChromeOptions chromeOptions
+                        ? new ChromeDriver(chromeOptions) : new EdgeDriver((EdgeOptions) options);
+            } catch (RuntimeException e) {
+                releaseCacheSlot(cacheSlot);
+                throw e;
+            }
+        }
+        WebDriver decorated;
+        try {
+            driver.manage().timeouts().pageLoadTimeout(
+                    Duration.ofMillis(Config.getLong(CONFIG_PAGE_TIMEOUT_PROPERTY, 30000)));
+            driver.manage().timeouts().scriptTimeout(SCRIPT_TIMEOUT);
+            driver.manage().window().setSize(parseResolution(Config.get(RESOLUTION_PROPERTY)));
+            ResourceBlocker.applyInBrowser(driver);
+            NetworkFilters.install(driver);
+            Alerts.install(driver);
+            decorated = Tracer.decorate(driver);
+        } catch (RuntimeException e) {
+            try {
+                driver.quit();
+            } catch (RuntimeException quitError) {
+                e.addSuppressed(quitError);
+            }
+            releaseCacheSlot(cacheSlot);
+            throw e;
+        }
+        if (cacheSlot != null) {
+            cacheSlotByDriver.put(decorated, cacheSlot);
+        }
+        return decorated;
+    }
+
+    /**
+     * Закрывает браузер и освобождает его каталог дискового кэша.
+     *
+     * @param driver браузер, созданный {@link #create()}.
+     */
+    public static void dispose(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (WebDriverException e) {
+            logger.warn("Failed to quit browser", e);
+        } finally {
+            releaseCacheSlot(cacheSlotByDriver.remove(driver));
+        }
+    }
+
+    /**
+     * Занимает свободный каталог кэша с наименьшим номером, чтобы браузеры раз за разом
+     * использовали одни и те же, уже заполненные каталоги.
+     */
+    private static synchronized int acquireCacheSlot() {
+        int slot = 0;
+        while (busyCacheSlots.contains(slot)) {
+            slot++;
+        }
+        busyCacheSlots.add(slot);
+        return slot;
+    }
+
+    private static void releaseCacheSlot(Integer slot) {
+        if (slot != null) {
+            busyCacheSlots.remove(slot);
+        }
+    }
+
+    private static Path cacheDirectory(int slot) {
+        return Path.of(Config.get(CACHE_DIR_PROPERTY, DEFAULT_CACHE_DIR), CACHE_SLOT_PREFIX + slot);
+    }
+
+    /**
+     * Преобразует строку вида 2560x1440 в размер окна.
+     *
+     * @param resolution разрешение из настроек.
+     * @return размер окна браузера.
+     */
+    private static Dimension parseResolution(String resolution) {
+        String[] parts = resolution.trim().split(RESOLUTION_SEPARATOR);
+        return new Dimension(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+    }
+}
@@ -0,0 +1,48 @@
+package utils.driver;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.devtools.NetworkInterceptor;
+import org.openqa.selenium.remote.http.Filter;
+import utils.traffic.TrafficFilter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Перехват сетевых запросов браузера через DevTools.
+ * Собирает включённые в настройках фильтры в одну цепочку и устанавливает её на браузер.
+ * Если ни один фильтр не включён, перехват не устанавливается и запросы не замедляются.
+ */
+final class NetworkFilters {
+    private static final Logger logger = LogManager.getLogger();
+
+    private NetworkFilters() {
+    }
+
+    /**
+     * Устанавливает перехват запросов на созданный браузер.
+     *
+     * @param driver браузер, поддерживающий DevTools.
+     */
+    static void install(WebDriver driver) {
+        List<Filter> filters = new ArrayList<>();
+        filters.add(ResourceBlocker.filter());
+        filters.add(TrafficFilter.create());
+        filters.removeIf(Objects::isNull);
+        if (filters.isEmpty()) {
+            return;
+        }
+        if (!(driver instanceof HasDevTools)) {
+            logger.warn("Browser {} does not support DevTools, network filters are not installed",
+                    driver.getClass().getSimpleName());
+            return;
+        }
+        Filter chain = filters.stream().reduce(Filter::andThen).orElseThrow();
+        new NetworkInterceptor(driver, chain);
+        logger.info("network interception installed with {} filters", filters.size());
+    }
+}
@@ -0,0 +1,97 @@
+package utils.driver;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpResponse;
+import utils.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Блокировка ненужных тестам ресурсов страницы: шрифтов, изображений, аналитики и т.п.
+ * Запрещённые адреса задаются шаблонами с * в block.deny, расширения файлов - в block.extensions
+ * (адрес, путь которого оканчивается расширением, с параметрами запроса или без), исключения - в block.allow.
+ * Тип ресурса по расширениям не определяется: ресурсы без расширения в адресе блокируются только шаблонами
+ * block.deny. Выключена по умолчанию (block.enabled).
+ * Без исключений список шаблонов передаётся в браузер (Network.setBlockedURLs) и запросы отсекаются
+ * самим браузером. Исключения через DevTools не выражаются, поэтому при них блокировка выполняется
+ * фильтром перехвата запросов.
+ */
+final class ResourceBlocker {
+    private static final String ENABLED_PROPERTY = "block.enabled";
+    private static final String DENY_PROPERTY = "block.deny";
+    private static final String ALLOW_PROPERTY = "block.allow";
+    private static final String EXTENSIONS_PROPERTY = "block.extensions";
+    private static final int BLOCKED_STATUS = 404;
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final boolean enabled = Config.getBoolean(ENABLED_PROPERTY, false);
+    private static final List<String> blockedPatterns = blockedPatterns();
+    private static final List<String> allowedPatterns = Config.getList(ALLOW_PROPERTY);
+
+    private ResourceBlocker() {
+    }
+
+    /**
+     * Передаёт список блокируемых адресов в браузер, если блокировка включена и исключений нет.
+     *
+     * @param driver созданный браузер.
+     */
+    static void applyInBrowser(WebDriver driver) {
+        if (!enabled || !allowedPatterns.isEmpty() || blockedPatterns.isEmpty()) {
+            return;
+        }
+        if (!(driver instanceof ChromiumDriver chromium)) {
+            logger.warn("Resource blocking is supported only in Chromium based browsers");
+            return;
+        }
+        chromium.executeCdpCommand("Network.enable", Map.of());
+        chromium.executeCdpCommand("Network.setBlockedURLs", Map.of("urls", blockedPatterns));
+        logger.info("{} url patterns blocked in browser", blockedPatterns.size());
+    }
+
+    /**
+     * Создаёт фильтр перехвата запросов, если заданы исключения из блокировки.
+     *
+     * @return фильтр или null, если блокировка выполняется браузером или выключена.
+     */
+    static Filter filter() {
+        if (!enabled || allowedPatterns.isEmpty()) {
+            return null;
+        }
+        List<Pattern> blocked = blockedPatterns.stream().map(ResourceBlocker::toRegex).toList();
+        List<Pattern> allowed = allowedPatterns.stream().map(ResourceBlocker::toRegex).toList();
+        return next -> request -> {
+            String url = request.getUri();
+            boolean isBlocked = blocked.stream().anyMatch(pattern -> pattern.matcher(url).matches())
+                    && allowed.stream().noneMatch(pattern -> pattern.matcher(url).matches());
+            return isBlocked ? new HttpResponse().setStatus(BLOCKED_STATUS) : next.execute(request);
+        };
+    }
+
+    private static List<String> blockedPatterns() {
+        List<String> patterns = new ArrayList<>(Config.getList(DENY_PROPERTY));
+        for (String extension : Config.getList(EXTENSIONS_PROPERTY)) {
+            patterns.add("*." + extension);
+            patterns.add("*." + extension + "?*");
+        }
+        return patterns;
+    }
+
+    /**
+     * Преобразует шаблон с * в регулярное выражение.
+     */
+    private static Pattern toRegex(String glob) {
+        return Pattern.compile(Arrays.stream(glob.split("\\*", -1))
+                .map(Pattern::quote)
+                .collect(Collectors.joining(".*")));
+    }
+}
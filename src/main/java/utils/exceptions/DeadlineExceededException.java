@@ -0,0 +1,17 @@
+package utils.exceptions;
+
+/**
+ * Исключение, указывающее, что тест исчерпал отведённое ему время.
+ * Сообщение содержит распределение потраченного времени по ожиданиям и переходам.
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    /**
+     * Конструктор с сообщением об ошибке.
+     *
+     * @param message сообщение об ошибке.
+     */
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
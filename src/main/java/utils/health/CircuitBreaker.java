@@ -0,0 +1,198 @@
+package utils.health;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.TimeoutException;
+import utils.Config;
+
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.net.http.HttpTimeoutException;
+import java.util.Optional;
+
+/**
+ * Общий для всех тестов предохранитель от недоступного стенда.
+ * Считает идущие подряд инфраструктурные сбои (таймауты, отказ в соединении, ответы 5xx) и после
+ * infra.failureThreshold сбоев размыкается: следующие тесты прерываются сразу, без ожидания таймаутов.
+ * Через infra.retrySeconds после размыкания стенд проверяется снова, и при его доступности предохранитель
+ * замыкается. Перед первым тестом стенд проверяется {@link EnvironmentProbe}, недоступный стенд размыкает
+ * предохранитель сразу.
+ * Проверка стенда выполняется вне блокировки предохранителя, а её результат используется повторно в течение
+ * infra.probeCacheMillis, поэтому сбой одного теста не задерживает остальные потоки на время проверки.
+ */
+public final class CircuitBreaker {
+    private static final String PROBE_PROPERTY = "infra.probe";
+    private static final String FAILURE_THRESHOLD_PROPERTY = "infra.failureThreshold";
+    private static final String RETRY_PROPERTY = "infra.retrySeconds";
+    private static final String PROBE_CACHE_PROPERTY = "infra.probeCacheMillis";
+    private static final String BROWSER_NETWORK_ERROR = "net::ERR_";
+    private static final Logger logger = LogManager.getLogger();
+    private static final CircuitBreaker sharedBreaker = new CircuitBreaker(
+            Config.getInt(FAILURE_THRESHOLD_PROPERTY, 3), Config.getLong(RETRY_PROPERTY, 60) * 1000);
+
+    private final int failureThreshold;
+    private final long retryMillis;
+    private final long probeCacheMillis = Config.getLong(PROBE_CACHE_PROPERTY, 5000);
+    private final Object probeLock = new Object();
+    private volatile ProbeResult lastProbe;
+    private boolean probed;
+    private int consecutiveFailures;
+    private String openReason;
+    private long openedAtMillis;
+
+    /**
+     * Результат проверки стенда и время его получения.
+     */
+    private record ProbeResult(Optional<String> problem, long checkedAtMillis) {
+    }
+
+    /**
+     * Создаёт предохранитель.
+     *
+     * @param failureThreshold число сбоев подряд, после которого предохранитель размыкается.
+     * @param retryMillis время, через которое разомкнутый предохранитель снова проверяет стенд.
+     */
+    public CircuitBreaker(int failureThreshold, long retryMillis) {
+        this.failureThreshold = failureThreshold;
+        this.retryMillis = retryMillis;
+    }
+
+    /**
+     * Возвращает общий для всех тестов предохранитель.
+     *
+     * @return предохранитель.
+     */
+    public static CircuitBreaker shared() {
+        return sharedBreaker;
+    }
+
+    /**
+     * Проверяет стенд перед первым тестом запуска (при infra.probe=true), повторные вызовы ничего не делают.
+     */
+    public synchronized void probeOnce() {
+        if (probed || !Config.getBoolean(PROBE_PROPERTY, true)) {
+            return;
+        }
+        probed = true;
+        probe().ifPresent(problem -> open("environment probe failed: " + problem));
+    }
+
+    /**
+     * Проверяет, можно ли выполнять тест. Разомкнутый предохранитель по истечении infra.retrySeconds
+     * проверяет стенд и замыкается, если стенд доступен.
+     *
+     * @return причина размыкания или пустое значение, если тест можно выполнять.
+     */
+    public Optional<String> openReason() {
+        synchronized (this) {
+            if (openReason == null || System.currentTimeMillis() - openedAtMillis < retryMillis) {
+                return Optional.ofNullable(openReason);
+            }
+        }
+        Optional<String> problem = probe();
+        synchronized (this) {
+            if (openReason != null && problem.isEmpty()) {
+                logger.info("environment is reachable again, circuit closed");
+                openReason = null;
+                consecutiveFailures = 0;
+            } else if (openReason != null) {
+                openedAtMillis = System.currentTimeMillis();
+            }
+            return Optional.ofNullable(openReason);
+        }
+    }
+
+    /**
+     * Учитывает сбой теста. Сбой считается инфраструктурным, если вызван сетевой ошибкой, либо если после
+     * таймаута WebDriver (ожидания или загрузки страницы) стенд не отвечает на проверку доступности.
+     * Остальные сбои, например непройденные проверки, стенд не проверяют.
+     *
+     * @param failure исключение теста.
+     * @return описание инфраструктурной проблемы или пустое значение, если сбой не инфраструктурный.
+     */
+    public Optional<String> recordFailure(Throwable failure) {
+        Optional<String> problem = networkProblem(failure);
+        if (problem.isEmpty() && isWebDriverTimeout(failure)) {
+            problem = probe();
+        }
+        synchronized (this) {
+            return countFailure(problem);
+        }
+    }
+
+    private Optional<String> countFailure(Optional<String> problem) {
+        if (problem.isEmpty()) {
+            consecutiveFailures = 0;
+            return problem;
+        }
+        consecutiveFailures++;
+        logger.warn("infrastructure failure {} of {}: {}", consecutiveFailures, failureThreshold, problem.get());
+        if (consecutiveFailures >= failureThreshold && openReason == null) {
+            open(consecutiveFailures + " consecutive infrastructure failures, last: " + problem.get());
+        }
+        return problem;
+    }
+
+    /**
+     * Учитывает успешно выполненный тест.
+     */
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+    }
+
+    /**
+     * Проверяет стенд или возвращает результат проверки, выполненной не раньше infra.probeCacheMillis назад.
+     * Одновременно выполняется не больше одной проверки, остальные потоки ждут её результат.
+     */
+    private Optional<String> probe() {
+        ProbeResult cached = lastProbe;
+        if (cached != null && System.currentTimeMillis() - cached.checkedAtMillis() < probeCacheMillis) {
+            return cached.problem();
+        }
+        synchronized (probeLock) {
+            cached = lastProbe;
+            if (cached == null || System.currentTimeMillis() - cached.checkedAtMillis() >= probeCacheMillis) {
+                cached = new ProbeResult(EnvironmentProbe.check(), System.currentTimeMillis());
+                lastProbe = cached;
+            }
+            return cached.problem();
+        }
+    }
+
+    private void open(String reason) {
+        openReason = reason;
+        openedAtMillis = System.currentTimeMillis();
+        logger.error("circuit opened, remaining tests will be aborted: {}", reason);
+    }
+
+    /**
+     * Ищет в цепочке причин сетевую ошибку или таймаут соединения. Таймауты WebDriver сюда не относятся:
+     * их дают и ожидания элементов, поэтому недоступность стенда после них подтверждается проверкой.
+     */
+    private static Optional<String> networkProblem(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException || cause instanceof NoRouteToHostException
+                    || cause instanceof UnknownHostException || cause instanceof SocketTimeoutException
+                    || cause instanceof HttpTimeoutException
+                    || String.valueOf(cause.getMessage()).contains(BROWSER_NETWORK_ERROR)) {
+                return Optional.of(cause.getClass().getSimpleName() + ": " + firstLine(cause.getMessage()));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static boolean isWebDriverTimeout(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String firstLine(String message) {
+        return message == null ? "" : message.lines().findFirst().orElse("");
+    }
+}
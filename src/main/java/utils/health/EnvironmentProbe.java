@@ -0,0 +1,49 @@
+package utils.health;
+
+import utils.Config;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Проверка доступности стенда: один GET запрос к web.url с коротким таймаутом.
+ * Стенд считается недоступным при ошибке соединения, таймауте или ответе с кодом 5xx.
+ */
+public final class EnvironmentProbe {
+    private static final String BASE_URL_PROPERTY = "web.url";
+    private static final String TIMEOUT_PROPERTY = "infra.probeTimeoutMillis";
+    private static final int SERVER_ERROR_STATUS = 500;
+
+    private EnvironmentProbe() {
+    }
+
+    /**
+     * Проверяет доступность стенда.
+     *
+     * @return описание проблемы или пустое значение, если стенд доступен.
+     */
+    public static Optional<String> check() {
+        String baseUrl = Config.get(BASE_URL_PROPERTY);
+        Duration timeout = Duration.ofMillis(Config.getLong(TIMEOUT_PROPERTY, 5000));
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl)).timeout(timeout).GET().build();
+        try {
+            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            return status >= SERVER_ERROR_STATUS
+                    ? Optional.of(baseUrl + " responded with status " + status) : Optional.empty();
+        } catch (IOException e) {
+            return Optional.of(baseUrl + " is unreachable: " + e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.of("Interrupted while probing " + baseUrl);
+        }
+    }
+}
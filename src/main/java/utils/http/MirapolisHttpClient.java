@@ -0,0 +1,185 @@
+package utils.http;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utils.Config;
+import utils.Credentials;
+import utils.perf.StepTimer;
+import utils.standin.MirapolisStandInServer;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * HTTP клиент без браузера для нагрузочного запуска (load.mode=http): отправляет запросы входа и восстановления
+ * пароля с теми же полями, что и формы страниц, хранит cookie сессии и разбирает ответы. Адреса запросов задаются
+ * относительно web.url настройками http.loginPath и http.recoverPath, имена полей формы - http.userField
+ * и http.passwordField. Протокол реального стенда (адреса запросов и формат ответов, формируемых скриптами
+ * страницы) здесь неизвестен, поэтому разбор ответов рассчитан на разметку локальной замены стенда
+ * ({@link MirapolisStandInServer}): клиент работает только при standin.enabled=true, на реальном стенде
+ * его создание завершается ошибкой. Проверки ответов стенда в тестах выполняются только в браузере.
+ * Шаги входа и восстановления пароля замеряются в {@link StepTimer} под отдельными именами
+ * {@link StepTimer#HTTP_LOGIN_STEP} и {@link StepTimer#HTTP_RECOVER_STEP}.
+ * Экземпляр соответствует одному пользователю и не предназначен для одновременного использования из разных потоков.
+ */
+public class MirapolisHttpClient {
+    private static final String BASE_URL_PROPERTY = "web.url";
+    private static final String LOGIN_PATH_PROPERTY = "http.loginPath";
+    private static final String RECOVER_PATH_PROPERTY = "http.recoverPath";
+    private static final String USER_FIELD_PROPERTY = "http.userField";
+    private static final String PASSWORD_FIELD_PROPERTY = "http.passwordField";
+    private static final String TIMEOUT_PROPERTY = "config.pageLoadTimeout";
+    private static final Pattern ALERT_PATTERN = Pattern.compile("alert\\('([^']*)'\\)");
+    private static final Pattern USER_NAME_PATTERN =
+            Pattern.compile("<div class=\"avatar-full-name\"[^>]*>([^<]*)</div>");
+    private static final Pattern MESSAGE_PATTERN =
+            Pattern.compile("<div class=\"(alert|success)\" style=\"([^\"]*)\"[^>]*>([^<]*)</div>");
+    private static final String HIDDEN_STYLE = "display: none";
+    private static final Logger logger = LogManager.getLogger();
+
+    private final String baseUrl;
+    private final Duration timeout = Duration.ofMillis(Config.getLong(TIMEOUT_PROPERTY, 30000));
+    private final HttpClient client = HttpClient.newBuilder()
+            .cookieHandler(new CookieManager())
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .connectTimeout(timeout)
+            .build();
+
+    /**
+     * Создаёт клиент для локальной замены стенда.
+     *
+     * @throws IllegalStateException если standin.enabled не включена.
+     */
+    public MirapolisHttpClient() {
+        requireStandIn();
+        baseUrl = Config.get(BASE_URL_PROPERTY);
+    }
+
+    /**
+     * Проверяет, что запросы без браузера будут отправляться на локальную замену стенда: ответы реального
+     * стенда клиент разобрать не может.
+     *
+     * @throws IllegalStateException если standin.enabled не включена.
+     */
+    public static void requireStandIn() {
+        if (!MirapolisStandInServer.isEnabled()) {
+            throw new IllegalStateException("Requests without a browser are supported only against the stand-in "
+                    + "server: run with -Dstandin.enabled=true or use load.mode=browser");
+        }
+    }
+
+    /**
+     * Результат отправки формы входа.
+     *
+     * @param status код ответа.
+     * @param authorized true, если после входа открыта домашняя страница.
+     * @param userName имя пользователя на домашней странице или пустая строка.
+     * @param alertMessage текст оповещения страницы входа или пустая строка.
+     */
+    public record LoginResponse(int status, boolean authorized, String userName, String alertMessage) {
+    }
+
+    /**
+     * Результат отправки формы восстановления пароля.
+     *
+     * @param status код ответа.
+     * @param alertMessage текст отображаемого предупреждения или пустая строка.
+     * @param successMessage текст отображаемого сообщения об успехе или пустая строка.
+     */
+    public record RecoverResponse(int status, String alertMessage, String successMessage) {
+    }
+
+    /**
+     * Отправляет форму входа и переходит по перенаправлению на домашнюю страницу.
+     *
+     * @param credentials логин и пароль пользователя.
+     * @return разобранный ответ.
+     */
+    public LoginResponse login(Credentials credentials) {
+        Map<String, String> form = new LinkedHashMap<>();
+        form.put(Config.get(USER_FIELD_PROPERTY, "user"), credentials.login());
+        form.put(Config.get(PASSWORD_FIELD_PROPERTY, "password"), credentials.password());
+        StepTimer.start(StepTimer.HTTP_LOGIN_STEP);
+        HttpResponse<String> response = post(Config.get(LOGIN_PATH_PROPERTY, "/login"), form);
+        String userName = find(USER_NAME_PATTERN, response.body(), 1);
+        LoginResponse loginResponse = new LoginResponse(response.statusCode(), !userName.isEmpty(), userName,
+                find(ALERT_PATTERN, response.body(), 1));
+        if (loginResponse.authorized()) {
+            StepTimer.stop(StepTimer.HTTP_LOGIN_STEP);
+        } else {
+            StepTimer.cancel(StepTimer.HTTP_LOGIN_STEP);
+        }
+        logger.info("login of {} over http: {}", credentials, loginResponse);
+        return loginResponse;
+    }
+
+    /**
+     * Отправляет форму восстановления пароля.
+     *
+     * @param login логин пользователя.
+     * @return разобранный ответ.
+     */
+    public RecoverResponse recover(String login) {
+        StepTimer.start(StepTimer.HTTP_RECOVER_STEP);
+        HttpResponse<String> response = post(Config.get(RECOVER_PATH_PROPERTY, "/recover"),
+                Map.of(Config.get(USER_FIELD_PROPERTY, "user"), login));
+        String alertMessage = "";
+        String successMessage = "";
+        Matcher matcher = MESSAGE_PATTERN.matcher(response.body());
+        while (matcher.find()) {
+            if (matcher.group(2).contains(HIDDEN_STYLE)) {
+                continue;
+            }
+            if (matcher.group(1).equals("alert")) {
+                alertMessage = matcher.group(3).trim();
+            } else {
+                successMessage = matcher.group(3).trim();
+            }
+        }
+        if (alertMessage.isEmpty() && successMessage.isEmpty()) {
+            StepTimer.cancel(StepTimer.HTTP_RECOVER_STEP);
+        } else {
+            StepTimer.stop(StepTimer.HTTP_RECOVER_STEP);
+        }
+        RecoverResponse recoverResponse = new RecoverResponse(response.statusCode(), alertMessage, successMessage);
+        logger.info("password recover of {} over http: {}", login, recoverResponse);
+        return recoverResponse;
+    }
+
+    private HttpResponse<String> post(String path, Map<String, String> form) {
+        String body = form.entrySet().stream()
+                .map(field -> URLEncoder.encode(field.getKey(), StandardCharsets.UTF_8) + "="
+                        + URLEncoder.encode(field.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(timeout)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException("Request to " + request.uri() + " failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while requesting " + request.uri(), e);
+        }
+    }
+
+    private static String find(Pattern pattern, String text, int group) {
+        Matcher matcher = pattern.matcher(text);
+        return matcher.find() ? matcher.group(group).trim() : "";
+    }
+}
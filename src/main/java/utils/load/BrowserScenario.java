@@ -0,0 +1,47 @@
+package utils.load;
+
+import com.codeborne.selenide.Selenide;
+import pages.BasePage;
+import pages.LoginPage;
+import pages.PasswordRecoverPage;
+import utils.Config;
+import utils.Credentials;
+import utils.driver.BrowserPool;
+
+/**
+ * Сценарий пользователя в браузере: те же объекты страниц, что используются в тестах.
+ * Браузер арендуется из общего пула на всё время работы пользователя.
+ */
+final class BrowserScenario implements LoadScenario {
+    private static final String BASE_URL_PROPERTY = "web.url";
+
+    private final Credentials credentials;
+    private final String baseUrl = Config.get(BASE_URL_PROPERTY);
+
+    BrowserScenario(Credentials credentials) {
+        this.credentials = credentials;
+        BrowserPool.shared().lease();
+    }
+
+    @Override
+    public void iterate() {
+        Selenide.clearBrowserCookies();
+        BasePage.open(baseUrl);
+        if (!BasePage.page(LoginPage.class).submit(credentials).isAuthorized()) {
+            throw new IllegalStateException("User " + credentials.login() + " is not authorized");
+        }
+        Selenide.clearBrowserCookies();
+        BasePage.open(baseUrl);
+        PasswordRecoverPage recoverPage = BasePage.page(LoginPage.class).clickForgetPasswordButton();
+        recoverPage.fillLoginInput(credentials.login());
+        recoverPage.clickSendRecoverEmailButton();
+        if (recoverPage.getRecoveringUserSuccessMessage().isEmpty()) {
+            throw new IllegalStateException("Password recover message is not shown");
+        }
+    }
+
+    @Override
+    public void close() {
+        BrowserPool.shared().release();
+    }
+}
@@ -0,0 +1,30 @@
+package utils.load;
+
+import utils.Credentials;
+import utils.http.MirapolisHttpClient;
+
+/**
+ * Сценарий пользователя без браузера: те же запросы входа и восстановления пароля через HTTP клиент.
+ */
+final class HttpScenario implements LoadScenario {
+    private final Credentials credentials;
+    private final MirapolisHttpClient client = new MirapolisHttpClient();
+
+    HttpScenario(Credentials credentials) {
+        this.credentials = credentials;
+    }
+
+    @Override
+    public void iterate() {
+        if (!client.login(credentials).authorized()) {
+            throw new IllegalStateException("User " + credentials.login() + " is not authorized");
+        }
+        if (client.recover(credentials.login()).successMessage().isEmpty()) {
+            throw new IllegalStateException("Password recover message is not shown");
+        }
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,159 @@
+package utils.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utils.perf.StepTimer;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Метрики нагрузочного прогона: гистограммы длительности шагов (HdrHistogram) и число неуспешных шагов.
+ * Потоки пользователей пишут замеры в Recorder без блокировок, а периодический отчёт забирает
+ * интервальные гистограммы, выводит по ним пропускную способность и перцентили за интервал и добавляет их
+ * в итоговые гистограммы текущей фазы.
+ */
+final class LoadMetrics implements StepTimer.Listener {
+    /**
+     * Имя, под которым учитываются итерации, завершившиеся ошибкой.
+     */
+    static final String ITERATION = "iteration";
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final String INTERVALS_FILE = "intervals.csv";
+    private static final String SUMMARY_FILE = "summary.txt";
+    private static final String HISTOGRAM_FILE_EXTENSION = ".hgrm";
+    private static final String INTERVALS_HEADER =
+            "elapsedSeconds,phase,activeUsers,step,count,perSecond,p50,p95,p99,max,failures";
+    private static final Logger logger = LogManager.getLogger();
+
+    private final Path resultsDirectory;
+    private final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+    private final Map<LoadPhase, Map<String, Histogram>> histogramsByPhase = new EnumMap<>(LoadPhase.class);
+    private final Map<LoadPhase, Map<String, Long>> failuresByPhase = new EnumMap<>(LoadPhase.class);
+    private final Map<LoadPhase, Long> durationByPhase = new EnumMap<>(LoadPhase.class);
+
+    LoadMetrics(Path resultsDirectory) {
+        this.resultsDirectory = resultsDirectory;
+        try {
+            Files.createDirectories(resultsDirectory);
+            Files.writeString(resultsDirectory.resolve(INTERVALS_FILE), INTERVALS_HEADER + System.lineSeparator(),
+                    StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create load results directory " + resultsDirectory, e);
+        }
+    }
+
+    @Override
+    public void onStep(String step, long elapsedMillis, boolean succeeded) {
+        if (succeeded) {
+            recorders.computeIfAbsent(step, key -> new Recorder(SIGNIFICANT_DIGITS)).recordValue(elapsedMillis);
+        } else {
+            recordFailure(step);
+        }
+    }
+
+    /**
+     * Учитывает неуспешный шаг или итерацию.
+     *
+     * @param step имя шага или {@link #ITERATION}.
+     */
+    void recordFailure(String step) {
+        failures.computeIfAbsent(step, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Забирает замеры за прошедший интервал, записывает строку отчёта по каждому шагу и добавляет
+     * замеры к итогам фазы.
+     *
+     * @param phase фаза, к которой относится интервал.
+     * @param elapsedMillis время от начала прогона.
+     * @param intervalMillis длительность интервала.
+     * @param activeUsers число работающих пользователей.
+     */
+    synchronized void tick(LoadPhase phase, long elapsedMillis, long intervalMillis, int activeUsers) {
+        Map<String, Histogram> phaseHistograms = histogramsByPhase.computeIfAbsent(phase, key -> new TreeMap<>());
+        Map<String, Long> phaseFailures = failuresByPhase.computeIfAbsent(phase, key -> new TreeMap<>());
+        durationByPhase.merge(phase, intervalMillis, Long::sum);
+        StringBuilder lines = new StringBuilder();
+        Map<String, Long> intervalFailures = new TreeMap<>();
+        failures.forEach((step, count) -> intervalFailures.put(step, count.sumThenReset()));
+        intervalFailures.forEach((step, count) -> phaseFailures.merge(step, count, Long::sum));
+        Map<String, Histogram> intervalHistograms = new TreeMap<>();
+        recorders.forEach((step, recorder) -> intervalHistograms.put(step, recorder.getIntervalHistogram()));
+        for (Map.Entry<String, Histogram> entry : intervalHistograms.entrySet()) {
+            String step = entry.getKey();
+            Histogram histogram = entry.getValue();
+            phaseHistograms.computeIfAbsent(step, key -> new Histogram(SIGNIFICANT_DIGITS)).add(histogram);
+            double perSecond = histogram.getTotalCount() * 1000.0 / Math.max(1, intervalMillis);
+            long stepFailures = intervalFailures.getOrDefault(step, 0L);
+            lines.append(String.format("%d,%s,%d,%s,%d,%.2f,%d,%d,%d,%d,%d%n", elapsedMillis / 1000, phase,
+                    activeUsers, step, histogram.getTotalCount(), perSecond, histogram.getValueAtPercentile(50),
+                    histogram.getValueAtPercentile(95), histogram.getValueAtPercentile(99),
+                    histogram.getMaxValue(), stepFailures));
+            logger.info("{} users={} {}: {}/s p50={} ms p95={} ms max={} ms failures={}", phase, activeUsers, step,
+                    String.format("%.2f", perSecond), histogram.getValueAtPercentile(50),
+                    histogram.getValueAtPercentile(95), histogram.getMaxValue(), stepFailures);
+        }
+        try {
+            Files.writeString(resultsDirectory.resolve(INTERVALS_FILE), lines, StandardCharsets.UTF_8,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            logger.warn("Failed to write load interval report", e);
+        }
+    }
+
+    /**
+     * Записывает итоги по фазам: сводку в summary.txt и распределения перцентилей каждого шага
+     * в файлы &lt;фаза&gt;-&lt;шаг&gt;.hgrm.
+     */
+    synchronized void writeSummary() {
+        StringBuilder summary = new StringBuilder();
+        for (Map.Entry<LoadPhase, Map<String, Histogram>> phaseEntry : histogramsByPhase.entrySet()) {
+            LoadPhase phase = phaseEntry.getKey();
+            long durationMillis = Math.max(1, durationByPhase.getOrDefault(phase, 1L));
+            summary.append(String.format("%s (%.1f s)%n", phase, durationMillis / 1000.0));
+            for (Map.Entry<String, Histogram> entry : phaseEntry.getValue().entrySet()) {
+                Histogram histogram = entry.getValue();
+                summary.append(String.format("  %-10s count=%d throughput=%.2f/s p50=%d p90=%d p95=%d p99=%d"
+                                + " max=%d ms failures=%d%n", entry.getKey(), histogram.getTotalCount(),
+                        histogram.getTotalCount() * 1000.0 / durationMillis, histogram.getValueAtPercentile(50),
+                        histogram.getValueAtPercentile(90), histogram.getValueAtPercentile(95),
+                        histogram.getValueAtPercentile(99), histogram.getMaxValue(),
+                        failuresByPhase.get(phase).getOrDefault(entry.getKey(), 0L)));
+                writeDistribution(phase, entry.getKey(), histogram);
+            }
+            Long failedIterations = failuresByPhase.get(phase).get(ITERATION);
+            if (failedIterations != null) {
+                summary.append(String.format("  failed iterations: %d%n", failedIterations));
+            }
+        }
+        logger.info("load summary:{}{}", System.lineSeparator(), summary);
+        try {
+            Files.writeString(resultsDirectory.resolve(SUMMARY_FILE), summary, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.warn("Failed to write load summary", e);
+        }
+    }
+
+    private void writeDistribution(LoadPhase phase, String step, Histogram histogram) {
+        Path path = resultsDirectory.resolve(phase.name().toLowerCase() + "-" + step + HISTOGRAM_FILE_EXTENSION);
+        try (PrintStream output = new PrintStream(Files.newOutputStream(path), false, StandardCharsets.UTF_8)) {
+            histogram.outputPercentileDistribution(output, 1.0);
+        } catch (IOException e) {
+            logger.warn("Failed to write histogram {}", path, e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package utils.load;
+
+/**
+ * Фаза нагрузочного прогона.
+ */
+enum LoadPhase {
+    /**
+     * Виртуальные пользователи запускаются равномерно один за другим.
+     */
+    RAMP_UP,
+    /**
+     * Работают все пользователи.
+     */
+    STEADY,
+    /**
+     * Пользователи равномерно останавливаются.
+     */
+    RAMP_DOWN
+}
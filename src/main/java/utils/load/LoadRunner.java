@@ -0,0 +1,205 @@
+package utils.load;
+
+import com.codeborne.selenide.Configuration;
+import elements.ElementCache;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utils.Config;
+import utils.Credentials;
+import utils.http.MirapolisHttpClient;
+import utils.perf.StepTimer;
+import utils.standin.MirapolisStandInServer;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Генератор нагрузки на основе сценариев входа и восстановления пароля.
+ * Запускает load.users виртуальных пользователей: в течение load.rampUpSeconds пользователи равномерно
+ * запускаются, load.steadySeconds работают все, в течение load.rampDownSeconds равномерно останавливаются.
+ * Пользователь повторяет сценарий с паузой load.thinkMillis в браузере (load.mode=browser, браузеры
+ * запускаются без окна) или через HTTP клиент (load.mode=http). Каждые load.reportSeconds в лог и
+ * в intervals.csv выводятся пропускная способность и перцентили шагов, по окончании - итоги по фазам и
+ * гистограммы в load.resultsDir (по умолчанию target/load).
+ * Каждый пользователь выполняется в своём виртуальном потоке (load.virtualThreads=false - в обычном):
+ * ожидания элементов и ответов браузера освобождают поток-носитель, поэтому один процесс управляет
+ * большим числом браузеров на нескольких потоках-носителях.
+ * При standin.enabled=true нагрузка подаётся на локальную замену стенда.
+ */
+public final class LoadRunner {
+    private static final String USERS_PROPERTY = "load.users";
+    private static final String RAMP_UP_PROPERTY = "load.rampUpSeconds";
+    private static final String STEADY_PROPERTY = "load.steadySeconds";
+    private static final String RAMP_DOWN_PROPERTY = "load.rampDownSeconds";
+    private static final String THINK_TIME_PROPERTY = "load.thinkMillis";
+    private static final String REPORT_INTERVAL_PROPERTY = "load.reportSeconds";
+    private static final String MODE_PROPERTY = "load.mode";
+    private static final String RESULTS_DIR_PROPERTY = "load.resultsDir";
+    private static final String VIRTUAL_THREADS_PROPERTY = "load.virtualThreads";
+    private static final String DEFAULT_RESULTS_DIR = "target/load";
+    private static final String USER_LOGIN_PROPERTY = "user.login";
+    private static final String USER_PASSWORD_PROPERTY = "user.password";
+    private static final String CONFIG_TIMEOUT_PROPERTY = "config.timeout";
+    private static final String POOL_SIZE_PROPERTY = "config.browserPoolSize";
+    private static final String HEADLESS_PROPERTY = "config.headless";
+    private static final String PERF_VITALS_PROPERTY = "perf.vitals";
+    private static final Duration STOP_TIMEOUT = Duration.ofMinutes(2);
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * Способ выполнения сценария виртуальным пользователем.
+     */
+    public enum Mode {
+        BROWSER, HTTP
+    }
+
+    private final int users = Config.getInt(USERS_PROPERTY, 10);
+    private final long rampUpMillis = Config.getLong(RAMP_UP_PROPERTY, 30) * 1000;
+    private final long steadyMillis = Config.getLong(STEADY_PROPERTY, 60) * 1000;
+    private final long rampDownMillis = Config.getLong(RAMP_DOWN_PROPERTY, 10) * 1000;
+    private final long thinkMillis = Config.getLong(THINK_TIME_PROPERTY, 500);
+    private final long reportMillis = Config.getLong(REPORT_INTERVAL_PROPERTY, 5) * 1000;
+    private final Mode mode = Mode.valueOf(Config.get(MODE_PROPERTY, Mode.BROWSER.name()).toUpperCase());
+    private final Credentials credentials =
+            new Credentials(Config.get(USER_LOGIN_PROPERTY), Config.get(USER_PASSWORD_PROPERTY));
+    private final LoadMetrics metrics =
+            new LoadMetrics(Path.of(Config.get(RESULTS_DIR_PROPERTY, DEFAULT_RESULTS_DIR)));
+    private final AtomicInteger activeUsers = new AtomicInteger();
+    private final List<AtomicBoolean> stopFlags = new ArrayList<>();
+    private long startNanos;
+    private long lastTickNanos;
+    private LoadPhase phase = LoadPhase.RAMP_UP;
+
+    /**
+     * Запускает нагрузочный прогон с настройками из config.properties и системных свойств.
+     *
+     * @param args не используются.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        defaultProperty(HEADLESS_PROPERTY, "true");
+        defaultProperty(PERF_VITALS_PROPERTY, "false");
+        defaultProperty(POOL_SIZE_PROPERTY, Config.get(USERS_PROPERTY, "10"));
+        MirapolisStandInServer.startIfEnabled();
+        Configuration.timeout = Config.getLong(CONFIG_TIMEOUT_PROPERTY, Configuration.timeout);
+        new LoadRunner().run();
+        System.exit(0);
+    }
+
+    /**
+     * Выполняет прогон: разгон, устойчивую нагрузку и остановку пользователей, затем записывает итоги.
+     */
+    public void run() throws InterruptedException {
+        if (mode == Mode.HTTP) {
+            MirapolisHttpClient.requireStandIn();
+        }
+        logger.info("load of {} {} users: ramp-up {} s, steady {} s, ramp-down {} s", users, mode,
+                rampUpMillis / 1000, steadyMillis / 1000, rampDownMillis / 1000);
+        StepTimer.setRecording(false);
+        StepTimer.addListener(metrics);
+        ExecutorService userExecutor = Config.getBoolean(VIRTUAL_THREADS_PROPERTY, true)
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("load-user-", 0).factory())
+                : Executors.newFixedThreadPool(users);
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+        startNanos = System.nanoTime();
+        lastTickNanos = startNanos;
+        reporter.scheduleAtFixedRate(this::scheduledTick, reportMillis, reportMillis, TimeUnit.MILLISECONDS);
+        try {
+            for (int user = 0; user < users; user++) {
+                sleepUntil(rampUpMillis * user / users);
+                AtomicBoolean stopped = new AtomicBoolean();
+                stopFlags.add(stopped);
+                userExecutor.execute(() -> runUser(stopped));
+            }
+            sleepUntil(rampUpMillis);
+            switchPhase(LoadPhase.STEADY);
+            sleepUntil(rampUpMillis + steadyMillis);
+            switchPhase(LoadPhase.RAMP_DOWN);
+            for (int user = 0; user < users; user++) {
+                sleepUntil(rampUpMillis + steadyMillis + rampDownMillis * user / users);
+                stopFlags.get(users - 1 - user).set(true);
+            }
+            userExecutor.shutdown();
+            if (!userExecutor.awaitTermination(STOP_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                logger.warn("{} users did not stop in {}", activeUsers.get(), STOP_TIMEOUT);
+                userExecutor.shutdownNow();
+            }
+        } finally {
+            reporter.shutdownNow();
+            tick();
+            StepTimer.removeListener(metrics);
+            StepTimer.setRecording(true);
+            metrics.writeSummary();
+            if (mode == Mode.BROWSER) {
+                ElementCache.logStatistics();
+            }
+        }
+    }
+
+    /**
+     * Цикл виртуального пользователя: повторяет сценарий до сигнала остановки.
+     */
+    private void runUser(AtomicBoolean stopped) {
+        activeUsers.incrementAndGet();
+        try (LoadScenario scenario = mode == Mode.BROWSER
+                ? new BrowserScenario(credentials) : new HttpScenario(credentials)) {
+            while (!stopped.get()) {
+                try {
+                    scenario.iterate();
+                } catch (RuntimeException e) {
+                    metrics.recordFailure(LoadMetrics.ITERATION);
+                    logger.debug("iteration failed", e);
+                }
+                Thread.sleep(thinkMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            logger.error("virtual user failed to start", e);
+        } finally {
+            activeUsers.decrementAndGet();
+        }
+    }
+
+    private synchronized void switchPhase(LoadPhase nextPhase) {
+        tick();
+        phase = nextPhase;
+        logger.info("load phase {}", phase);
+    }
+
+    /**
+     * Периодический отчёт. Пропускается, если сразу перед ним интервал был закрыт сменой фазы,
+     * чтобы не выводить пропускную способность по интервалу в несколько миллисекунд.
+     */
+    private synchronized void scheduledTick() {
+        if (System.nanoTime() - lastTickNanos >= reportMillis * 1_000_000 / 2) {
+            tick();
+        }
+    }
+
+    private synchronized void tick() {
+        long now = System.nanoTime();
+        metrics.tick(phase, (now - startNanos) / 1_000_000, (now - lastTickNanos) / 1_000_000, activeUsers.get());
+        lastTickNanos = now;
+    }
+
+    private void sleepUntil(long offsetMillis) throws InterruptedException {
+        long remainingNanos = startNanos + offsetMillis * 1_000_000 - System.nanoTime();
+        if (remainingNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(remainingNanos);
+        }
+    }
+
+    private static void defaultProperty(String key, String value) {
+        if (System.getProperty(key) == null) {
+            System.setProperty(key, value);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package utils.load;
+
+/**
+ * Сценарий одного виртуального пользователя. Экземпляр создаётся в потоке пользователя
+ * и используется только в нём.
+ */
+interface LoadScenario extends AutoCloseable {
+
+    /**
+     * Выполняет одну итерацию сценария: вход и восстановление пароля.
+     * Длительности шагов отмечаются объектами страниц или HTTP клиентом в {@link utils.perf.StepTimer}.
+     */
+    void iterate();
+
+    /**
+     * Освобождает ресурсы пользователя.
+     */
+    @Override
+    void close();
+}
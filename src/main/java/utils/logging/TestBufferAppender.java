@@ -0,0 +1,94 @@
+package utils.logging;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.Core;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
+import org.apache.logging.log4j.core.config.plugins.PluginElement;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.SimpleMessage;
+
+import java.util.List;
+
+/**
+ * Appender log4j, который передаёт сообщения потоков, выполняющих тесты, в {@link TestLogBuffer},
+ * а остальные сообщения и выведенные буферы - в appender target (обычно асинхронный).
+ */
+@Plugin(name = "TestBuffer", category = Core.CATEGORY_NAME, elementType = Appender.ELEMENT_TYPE)
+public final class TestBufferAppender extends AbstractAppender {
+    private static volatile TestBufferAppender instance;
+
+    private final Configuration configuration;
+    private final String targetName;
+    private volatile Appender target;
+
+    private TestBufferAppender(String name, Filter filter, Configuration configuration, String targetName) {
+        super(name, filter, null, true, Property.EMPTY_ARRAY);
+        this.configuration = configuration;
+        this.targetName = targetName;
+    }
+
+    /**
+     * Создаёт appender по описанию в log4j2.properties.
+     *
+     * @param name имя appender.
+     * @param target имя appender, в который выводятся сообщения.
+     * @param filter фильтр сообщений.
+     * @param configuration конфигурация log4j.
+     * @return appender.
+     */
+    @PluginFactory
+    public static TestBufferAppender createAppender(@PluginAttribute("name") String name,
+                                                    @PluginAttribute("target") String target,
+                                                    @PluginElement("Filter") Filter filter,
+                                                    @PluginConfiguration Configuration configuration) {
+        TestBufferAppender appender = new TestBufferAppender(name, filter, configuration, target);
+        instance = appender;
+        return appender;
+    }
+
+    @Override
+    public void append(LogEvent event) {
+        TestLogBuffer.offer(event, this::forward);
+    }
+
+    /**
+     * Выводит накопленные сообщения упавшего теста.
+     */
+    static void replay(int dropped, List<LogEvent> events) {
+        TestBufferAppender appender = instance;
+        if (appender == null || events.isEmpty()) {
+            return;
+        }
+        if (dropped > 0) {
+            LogEvent first = events.get(0);
+            appender.forward(Log4jLogEvent.newBuilder()
+                    .setLoggerName(first.getLoggerName())
+                    .setLevel(Level.WARN)
+                    .setThreadName(first.getThreadName())
+                    .setTimeMillis(first.getTimeMillis())
+                    .setMessage(new SimpleMessage(dropped + " earlier log events of the test were dropped"))
+                    .build());
+        }
+        events.forEach(appender::forward);
+    }
+
+    private void forward(LogEvent event) {
+        Appender appender = target;
+        if (appender == null) {
+            appender = configuration.getAppender(targetName);
+            target = appender;
+        }
+        if (appender != null) {
+            appender.append(event);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package utils.logging;
+
+import org.apache.logging.log4j.core.LogEvent;
+import utils.Config;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Буфер сообщений лога текущего теста. Пока тест выполняется, сообщения его потока не выводятся, а копятся
+ * в памяти (не более log.bufferSize, старые вытесняются). Если тест упал, сообщения выводятся одним блоком,
+ * если прошёл - забываются. При log.verbose=true буфер не используется и сообщения выводятся сразу.
+ * Сообщения направляет в буфер {@link TestBufferAppender}.
+ */
+public final class TestLogBuffer {
+    /**
+     * Объявлен первым: чтение настроек может само писать в лог до окончания инициализации класса.
+     */
+    private static final ThreadLocal<TestLogBuffer> buffers = new ThreadLocal<>();
+    private static final String VERBOSE_PROPERTY = "log.verbose";
+    private static final String BUFFER_SIZE_PROPERTY = "log.bufferSize";
+    private static final boolean verbose = Config.getBoolean(VERBOSE_PROPERTY, false);
+    private static final int bufferSize = Config.getInt(BUFFER_SIZE_PROPERTY, 2000);
+
+    private final Deque<LogEvent> events = new ArrayDeque<>();
+    private int dropped;
+
+    private TestLogBuffer() {
+    }
+
+    /**
+     * Начинает буферизацию сообщений в текущем потоке.
+     */
+    public static void start() {
+        if (!verbose) {
+            buffers.set(new TestLogBuffer());
+        }
+    }
+
+    /**
+     * Завершает буферизацию в текущем потоке.
+     *
+     * @param failed true, если тест упал и накопленные сообщения нужно вывести.
+     */
+    public static void finish(boolean failed) {
+        TestLogBuffer buffer = buffers.get();
+        buffers.remove();
+        if (buffer != null && failed) {
+            TestBufferAppender.replay(buffer.dropped, List.copyOf(buffer.events));
+        }
+    }
+
+    /**
+     * Добавляет сообщение в буфер текущего потока.
+     *
+     * @param event сообщение.
+     * @param passThrough вывод сообщения, если поток не выполняет тест.
+     */
+    static void offer(LogEvent event, Consumer<LogEvent> passThrough) {
+        TestLogBuffer buffer = buffers.get();
+        if (buffer == null) {
+            passThrough.accept(event);
+            return;
+        }
+        buffer.events.addLast(event.toImmutable());
+        if (buffer.events.size() > bufferSize) {
+            buffer.events.removeFirst();
+            buffer.dropped++;
+        }
+    }
+}
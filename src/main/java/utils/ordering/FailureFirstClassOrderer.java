@@ -0,0 +1,26 @@
+package utils.ordering;
+
+import org.junit.jupiter.api.ClassDescriptor;
+import org.junit.jupiter.api.ClassOrderer;
+import org.junit.jupiter.api.ClassOrdererContext;
+
+import java.util.Comparator;
+
+/**
+ * Порядок классов тестов по убыванию приоритета {@link TestPriority#ofClass}: классы с вероятно падающими
+ * и быстрыми тестами запускаются первыми. Задаётся в junit-platform.properties
+ * (junit.jupiter.testclass.order.default).
+ */
+public class FailureFirstClassOrderer implements ClassOrderer {
+
+    @Override
+    public void orderClasses(ClassOrdererContext context) {
+        if (!TestPriority.isEnabled()) {
+            return;
+        }
+        TestPriority priority = TestPriority.shared();
+        context.getClassDescriptors().sort(Comparator.<ClassDescriptor>comparingDouble(descriptor ->
+                        -priority.ofClass(descriptor.getTestClass().getName()))
+                .thenComparing(descriptor -> descriptor.getTestClass().getName()));
+    }
+}
@@ -0,0 +1,37 @@
+package utils.ordering;
+
+import org.junit.jupiter.api.MethodDescriptor;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.MethodOrdererContext;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import utils.shard.TestDurations;
+
+import java.util.Comparator;
+import java.util.Optional;
+
+/**
+ * Порядок методов класса по убыванию приоритета {@link TestPriority}: вероятно падающие и быстрые тесты
+ * выполняются первыми. Задаётся в junit-platform.properties (junit.jupiter.testmethod.order.default).
+ */
+public class FailureFirstMethodOrderer implements MethodOrderer {
+
+    @Override
+    public void orderMethods(MethodOrdererContext context) {
+        if (!TestPriority.isEnabled()) {
+            return;
+        }
+        TestPriority priority = TestPriority.shared();
+        String className = context.getTestClass().getName();
+        context.getMethodDescriptors().sort(Comparator.<MethodDescriptor>comparingDouble(method ->
+                        -priority.of(TestDurations.key(className, method.getMethod().getName())))
+                .thenComparing(method -> method.getMethod().getName()));
+    }
+
+    /**
+     * Порядок задаёт только очередь запуска, методы по-прежнему выполняются параллельно.
+     */
+    @Override
+    public Optional<ExecutionMode> getDefaultExecutionMode() {
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,126 @@
+package utils.ordering;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import utils.shard.ShardPlan;
+import utils.shard.TestDurations;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Слушатель JUnit, записывающий результаты тестов в историю {@link TestOutcomes} после каждого запуска.
+ * Тест-фабрика или параметризованный тест считается упавшим, если упал любой из его вызовов.
+ * Часть разбитого запуска историю не меняет, чтобы все части упорядочивали тесты по одной и той же истории,
+ * а записывает результаты в shard.dir/shard-&lt;номер&gt;, откуда их забирает {@link utils.shard.ShardMerge}.
+ * Кроме того, считает падения текущего запуска для остановки после первых ошибок (ordering.maxFailures).
+ * Регистрируется через META-INF/services.
+ */
+public class TestOutcomeListener implements TestExecutionListener {
+    public static final String OUTCOMES_FILE = "outcomes.csv";
+    private static final String OUTCOMES_HEADER = "test,failed";
+    private static final AtomicInteger failures = new AtomicInteger();
+    private static final Logger logger = LogManager.getLogger();
+
+    private final Map<String, Boolean> failedByTest = new ConcurrentHashMap<>();
+    private TestPlan testPlan;
+
+    /**
+     * @return число упавших тестов и контейнеров в текущем запуске.
+     */
+    public static int failures() {
+        return failures.get();
+    }
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan) {
+        this.testPlan = testPlan;
+        failedByTest.clear();
+        failures.set(0);
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+        TestExecutionResult.Status status = testExecutionResult.getStatus();
+        if (status == TestExecutionResult.Status.FAILED && testPlan.getParent(testIdentifier).isPresent()) {
+            failures.incrementAndGet();
+        }
+        Optional<TestIdentifier> test = testMethod(testIdentifier);
+        if (test.isEmpty()) {
+            return;
+        }
+        String key = key(test.get());
+        if (status == TestExecutionResult.Status.FAILED) {
+            failedByTest.put(key, true);
+        } else if (status == TestExecutionResult.Status.SUCCESSFUL && test.get().equals(testIdentifier)) {
+            failedByTest.putIfAbsent(key, false);
+        }
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        if (failedByTest.isEmpty()) {
+            return;
+        }
+        if (ShardPlan.isSharded()) {
+            writeShardOutcomes();
+        } else {
+            TestOutcomes history = TestOutcomes.load();
+            failedByTest.forEach(history::add);
+            history.save();
+        }
+    }
+
+    private void writeShardOutcomes() {
+        Path directory = ShardPlan.shardDirectory();
+        StringBuilder lines = new StringBuilder(OUTCOMES_HEADER).append(System.lineSeparator());
+        new TreeMap<>(failedByTest).forEach((test, failed) ->
+                lines.append(test).append(',').append(failed).append(System.lineSeparator()));
+        try {
+            Files.createDirectories(directory);
+            Files.writeString(directory.resolve(OUTCOMES_FILE), lines, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.warn("Failed to write shard outcomes to {}", directory, e);
+        }
+    }
+
+    /**
+     * Метод теста, к которому относится идентификатор: он сам или ближайший предок, чей источник - метод,
+     * а источник родителя - нет (вызовы динамических и параметризованных тестов относятся к своему методу).
+     */
+    private Optional<TestIdentifier> testMethod(TestIdentifier testIdentifier) {
+        Optional<TestIdentifier> current = Optional.of(testIdentifier);
+        while (current.isPresent()) {
+            Optional<TestIdentifier> parent = testPlan.getParent(current.get());
+            if (methodSource(current.get()).isPresent()
+                    && parent.flatMap(TestOutcomeListener::methodSource).isEmpty()) {
+                return current;
+            }
+            current = parent;
+        }
+        return Optional.empty();
+    }
+
+    private static String key(TestIdentifier testIdentifier) {
+        MethodSource source = methodSource(testIdentifier).orElseThrow();
+        return TestDurations.key(source.getClassName(), source.getMethodName());
+    }
+
+    private static Optional<MethodSource> methodSource(TestIdentifier testIdentifier) {
+        return testIdentifier.getSource()
+                .filter(MethodSource.class::isInstance)
+                .map(MethodSource.class::cast);
+    }
+}
@@ -0,0 +1,104 @@
+package utils.ordering;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utils.Config;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * История результатов тестов по запускам. Для каждого теста (класс#метод) хранится строка результатов
+ * последних ordering.historyRuns запусков от старых к новым: P - прошёл, F - упал. Прерванные и пропущенные
+ * тесты в историю не попадают. История хранится в файле в каталоге config.dataDir.
+ */
+public final class TestOutcomes {
+    static final char PASSED = 'P';
+    static final char FAILED = 'F';
+    private static final String DATA_DIR_PROPERTY = "config.dataDir";
+    private static final String DEFAULT_DATA_DIR = ".test-data";
+    private static final String FILE_NAME = "test-outcomes.properties";
+    private static final String HISTORY_RUNS_PROPERTY = "ordering.historyRuns";
+    private static final Logger logger = LogManager.getLogger();
+
+    private final Path path;
+    private final int historyRuns = Config.getInt(HISTORY_RUNS_PROPERTY, 20);
+    private final Map<String, String> outcomesByTest = new TreeMap<>();
+
+    private TestOutcomes(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Загружает историю из config.dataDir.
+     *
+     * @return история, пустая, если файла нет или он не читается.
+     */
+    public static TestOutcomes load() {
+        TestOutcomes outcomes =
+                new TestOutcomes(Path.of(Config.get(DATA_DIR_PROPERTY, DEFAULT_DATA_DIR), FILE_NAME));
+        if (!Files.exists(outcomes.path)) {
+            return outcomes;
+        }
+        Properties stored = new Properties();
+        try (Reader reader = Files.newBufferedReader(outcomes.path, StandardCharsets.UTF_8)) {
+            stored.load(reader);
+        } catch (IOException e) {
+            logger.warn("Failed to read test outcomes from {}", outcomes.path, e);
+            return outcomes;
+        }
+        stored.stringPropertyNames().forEach(test -> outcomes.outcomesByTest.put(test, stored.getProperty(test)));
+        return outcomes;
+    }
+
+    /**
+     * @param test ключ теста.
+     * @return результаты теста от старых к новым, пусто, если тест ещё не выполнялся.
+     */
+    Optional<String> outcomes(String test) {
+        return Optional.ofNullable(outcomesByTest.get(test));
+    }
+
+    /**
+     * @return ключи всех тестов с историей.
+     */
+    Set<String> tests() {
+        return outcomesByTest.keySet();
+    }
+
+    /**
+     * Добавляет результат теста в текущем запуске.
+     *
+     * @param test ключ теста.
+     * @param failed true, если тест упал.
+     */
+    public void add(String test, boolean failed) {
+        String outcomes = outcomesByTest.getOrDefault(test, "") + (failed ? FAILED : PASSED);
+        outcomesByTest.put(test, outcomes.substring(Math.max(0, outcomes.length() - historyRuns)));
+    }
+
+    /**
+     * Сохраняет историю в config.dataDir.
+     */
+    public void save() {
+        Properties stored = new Properties();
+        stored.putAll(outcomesByTest);
+        try {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                stored.store(writer, "Test outcomes, oldest first: P - passed, F - failed");
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to save test outcomes to {}", path, e);
+        }
+    }
+}
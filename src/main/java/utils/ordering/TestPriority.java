@@ -0,0 +1,113 @@
+package utils.ordering;
+
+import utils.Config;
+import utils.shard.TestDurations;
+
+import java.util.List;
+
+/**
+ * Приоритет теста для раннего обнаружения ошибок: вероятность падения, делённая на ожидаемую длительность.
+ * Вероятность падения - доля падений в истории {@link TestOutcomes} с убыванием веса старых запусков
+ * (ordering.decay за каждый запуск), сглаженная априорной оценкой ordering.newTestFailRate (для теста без
+ * истории - она сама), к которой добавляется нестабильность: доля смен результата между соседними запусками
+ * с весом ordering.flakinessWeight. Длительность берётся из истории {@link TestDurations}.
+ * Дешёвые и часто падающие тесты получают наибольший приоритет.
+ */
+final class TestPriority {
+    private static final String ENABLED_PROPERTY = "ordering.enabled";
+    private static final String DECAY_PROPERTY = "ordering.decay";
+    private static final String FLAKINESS_WEIGHT_PROPERTY = "ordering.flakinessWeight";
+    private static final String NEW_TEST_FAIL_RATE_PROPERTY = "ordering.newTestFailRate";
+    private static final long DEFAULT_MILLIS = 10000;
+    private static final long MIN_MILLIS = 100;
+
+    private static volatile TestPriority instance;
+
+    private final double decay = Config.getDouble(DECAY_PROPERTY, 0.7);
+    private final double flakinessWeight = Config.getDouble(FLAKINESS_WEIGHT_PROPERTY, 0.5);
+    private final double newTestFailRate = Config.getDouble(NEW_TEST_FAIL_RATE_PROPERTY, 0.2);
+    private final TestOutcomes outcomes = TestOutcomes.load();
+    private final TestDurations durations = TestDurations.load();
+    private final long typicalMillis = durations.typical().orElse(DEFAULT_MILLIS);
+
+    private TestPriority() {
+    }
+
+    /**
+     * @return true, если тесты упорядочиваются по приоритету (ordering.enabled).
+     */
+    static boolean isEnabled() {
+        return Config.getBoolean(ENABLED_PROPERTY, true);
+    }
+
+    /**
+     * Приоритеты по истории на начало запуска: история загружается один раз, чтобы порядок классов
+     * и методов считался по одним и тем же данным.
+     *
+     * @return приоритеты тестов.
+     */
+    static TestPriority shared() {
+        if (instance == null) {
+            synchronized (TestPriority.class) {
+                if (instance == null) {
+                    instance = new TestPriority();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * @param test ключ теста (см. {@link TestDurations#key}).
+     * @return приоритет теста, чем больше, тем раньше тест выполняется.
+     */
+    double of(String test) {
+        return failureProbability(test) / expectedSeconds(test);
+    }
+
+    /**
+     * Приоритет класса: вероятность падения хотя бы одного теста класса из истории, делённая на суммарную
+     * длительность его тестов. Класс без истории оценивается как один новый тест.
+     *
+     * @param className полное имя класса.
+     * @return приоритет класса.
+     */
+    double ofClass(String className) {
+        String prefix = TestDurations.key(className, "");
+        List<String> tests = outcomes.tests().stream().filter(test -> test.startsWith(prefix)).toList();
+        if (tests.isEmpty()) {
+            return newTestFailRate / (typicalMillis / 1000.0);
+        }
+        double passProbability = 1;
+        double seconds = 0;
+        for (String test : tests) {
+            passProbability *= 1 - failureProbability(test);
+            seconds += expectedSeconds(test);
+        }
+        return (1 - passProbability) / seconds;
+    }
+
+    private double failureProbability(String test) {
+        String history = outcomes.outcomes(test).orElse("");
+        double weightedFailures = newTestFailRate;
+        double totalWeight = 1;
+        double weight = 1;
+        int flips = 0;
+        for (int i = history.length() - 1; i >= 0; i--) {
+            if (history.charAt(i) == TestOutcomes.FAILED) {
+                weightedFailures += weight;
+            }
+            totalWeight += weight;
+            weight *= decay;
+            if (i > 0 && history.charAt(i) != history.charAt(i - 1)) {
+                flips++;
+            }
+        }
+        double flakiness = history.length() < 2 ? 0 : (double) flips / (history.length() - 1);
+        return Math.min(1, weightedFailures / totalWeight + flakinessWeight * flakiness);
+    }
+
+    private double expectedSeconds(String test) {
+        return Math.max(MIN_MILLIS, durations.expected(test).orElse(typicalMillis)) / 1000.0;
+    }
+}
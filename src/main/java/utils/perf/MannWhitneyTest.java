@@ -0,0 +1,70 @@
+package utils.perf;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Односторонний U-критерий Манна-Уитни: проверяет, что значения одной выборки систематически больше
+ * значений другой. Критерий не предполагает нормального распределения, поэтому подходит для длительностей
+ * с длинным хвостом. p-значение вычисляется нормальным приближением с поправкой на непрерывность.
+ */
+final class MannWhitneyTest {
+
+    private MannWhitneyTest() {
+    }
+
+    /**
+     * Вычисляет p-значение гипотезы "значения current не больше значений baseline".
+     *
+     * @param current замеры текущего запуска.
+     * @param baseline замеры базовой линии.
+     * @return p-значение; малое значение означает, что current значимо больше baseline.
+     */
+    static double pValueGreater(List<Long> current, List<Long> baseline) {
+        int n1 = current.size();
+        int n2 = baseline.size();
+        long[][] values = new long[n1 + n2][];
+        for (int i = 0; i < n1; i++) {
+            values[i] = new long[]{current.get(i), 1};
+        }
+        for (int i = 0; i < n2; i++) {
+            values[n1 + i] = new long[]{baseline.get(i), 0};
+        }
+        Arrays.sort(values, (left, right) -> Long.compare(left[0], right[0]));
+        double currentRankSum = 0;
+        double tieCorrection = 0;
+        for (int start = 0; start < values.length; ) {
+            int end = start;
+            while (end < values.length && values[end][0] == values[start][0]) {
+                end++;
+            }
+            double averageRank = (start + 1 + end) / 2.0;
+            for (int i = start; i < end; i++) {
+                currentRankSum += values[i][1] * averageRank;
+            }
+            int ties = end - start;
+            tieCorrection += (double) ties * ties * ties - ties;
+            start = end;
+        }
+        double u = currentRankSum - n1 * (n1 + 1) / 2.0;
+        double mean = n1 * (double) n2 / 2;
+        int n = n1 + n2;
+        double variance = n1 * (double) n2 / 12 * ((n + 1) - tieCorrection / ((double) n * (n - 1)));
+        if (variance <= 0) {
+            return 1;
+        }
+        double z = (u - mean - 0.5) / Math.sqrt(variance);
+        return 1 - normalCdf(z);
+    }
+
+    /**
+     * Функция стандартного нормального распределения (приближение Абрамовица-Стиган 7.1.26).
+     */
+    private static double normalCdf(double z) {
+        double x = Math.abs(z) / Math.sqrt(2);
+        double t = 1 / (1 + 0.3275911 * x);
+        double erf = 1 - t * (0.254829592 + t * (-0.284496736 + t * (1.421413741
+                + t * (-1.453152027 + t * 1.061405429)))) * Math.exp(-x * x);
+        return z >= 0 ? (1 + erf) / 2 : (1 - erf) / 2;
+    }
+}
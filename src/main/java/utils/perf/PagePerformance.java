@@ -0,0 +1,127 @@
+package utils.perf;
+
+import com.codeborne.selenide.Selenide;
+import com.codeborne.selenide.WebDriverRunner;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+import utils.Config;
+import utils.Scripts;
+import utils.TestContext;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Сбор метрик производительности страниц: Navigation Timing, Resource Timing и Web Vitals
+ * (TTFB, FCP, LCP, CLS, INP). Метрики снимаются по завершении переходов, а по окончании теста - для
+ * последнего документа, если после перехода на него они не снимались. Создание страниц браузер не
+ * затрагивает: переход в это время может ещё выполняться.
+ * Метрики накапливаются в памяти потока во время теста и по окончании теста записываются одним файлом
+ * target/perf/&lt;тест&gt;.json.
+ */
+public final class PagePerformance {
+    private static final String ENABLED_PROPERTY = "perf.vitals";
+    private static final String RESULTS_DIR_PROPERTY = "perf.resultsDir";
+    private static final String DEFAULT_RESULTS_DIR = "target/perf";
+    private static final String WEB_VITALS_SCRIPT = "web-vitals.js";
+    private static final String RESULTS_FILE_EXTENSION = ".json";
+    private static final String FINISHED_EVENT = "test finished";
+    private static final String TIME_ORIGIN = "timeOrigin";
+    private static final boolean enabled = Config.getBoolean(ENABLED_PROPERTY, true);
+    private static final Path resultsDirectory = Path.of(Config.get(RESULTS_DIR_PROPERTY, DEFAULT_RESULTS_DIR));
+    private static final ThreadLocal<List<Map<String, Object>>> captures = ThreadLocal.withInitial(ArrayList::new);
+    private static final ThreadLocal<String> openedPage = new ThreadLocal<>();
+    private static final Json json = new Json();
+    private static final Logger logger = LogManager.getLogger();
+
+    private PagePerformance() {
+    }
+
+    /**
+     * Запоминает последнюю созданную в тесте страницу без обращения к браузеру. Если после неё метрики
+     * документа не снимались, они снимаются по окончании теста (см. {@link #flush()}).
+     *
+     * @param page имя страницы.
+     */
+    public static void opened(String page) {
+        openedPage.set(page);
+    }
+
+    /**
+     * Снимает метрики текущего документа. Ошибки сбора не влияют на тест.
+     *
+     * @param page имя страницы.
+     * @param event событие, после которого сняты метрики (открытие страницы, завершение перехода).
+     */
+    public static void capture(String page, String event) {
+        if (!enabled || !WebDriverRunner.hasWebDriverStarted()) {
+            return;
+        }
+        try {
+            Map<String, Object> metrics = Selenide.executeAsyncJavaScript(Scripts.load(WEB_VITALS_SCRIPT));
+            Map<String, Object> record = new LinkedHashMap<>();
+            record.put("page", page);
+            record.put("event", event);
+            record.put("timestamp", System.currentTimeMillis());
+            record.putAll(metrics);
+            captures.get().add(record);
+        } catch (WebDriverException e) {
+            logger.debug("Performance metrics of {} are not captured: {}", page, e.getMessage());
+        }
+    }
+
+    /**
+     * Снимает метрики последнего документа теста, если он не снят после завершения перехода, записывает
+     * накопленные за тест метрики в файл результатов и очищает их. Вызывается до возвращения браузера в пул.
+     */
+    public static void flush() {
+        String page = openedPage.get();
+        openedPage.remove();
+        if (page != null) {
+            captureOnce(page);
+        }
+        List<Map<String, Object>> testCaptures = captures.get();
+        captures.remove();
+        if (testCaptures.isEmpty()) {
+            return;
+        }
+        String testId = TestContext.currentTest();
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("test", testId);
+        results.put("captures", testCaptures);
+        try {
+            Files.createDirectories(resultsDirectory);
+            try (Writer writer = Files.newBufferedWriter(resultsDirectory.resolve(testId + RESULTS_FILE_EXTENSION),
+                    StandardCharsets.UTF_8); JsonOutput output = json.newOutput(writer)) {
+                output.setPrettyPrint(false).write(results);
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to write performance results of {}", testId, e);
+        }
+    }
+
+    /**
+     * Снимает метрики документа по окончании теста и оставляет их, только если этот документ
+     * (performance.timeOrigin) не снимался последним.
+     */
+    private static void captureOnce(String page) {
+        List<Map<String, Object>> testCaptures = captures.get();
+        int captured = testCaptures.size();
+        capture(page, FINISHED_EVENT);
+        if (captured > 0 && testCaptures.size() > captured && Objects.equals(
+                testCaptures.get(captured - 1).get(TIME_ORIGIN), testCaptures.get(captured).get(TIME_ORIGIN))) {
+            testCaptures.remove(captured);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package utils.perf;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utils.Config;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Проверка бюджетов длительности шагов и поиск замедлений относительно предыдущих запусков.
+ * Бюджет задаётся в config.properties или системным свойством в виде
+ * budget.&lt;шаг&gt;.p&lt;перцентиль&gt;=миллисекунды, например budget.login.p95=3000 или -Dbudget.login.p95=3000.
+ * Проверяются замеры одного класса тестов, поэтому при параллельном выполнении классов нарушение относится
+ * к классу, в котором оно замерено. Замеры сравниваются с замерами последних regression.baselineRuns
+ * запусков U-критерием Манна-Уитни; значимое замедление медианы больше чем в regression.minSlowdown раз
+ * отмечается в логе, а при regression.fail=true приводит к ошибке.
+ * Замеры запуска дописываются в историю config.dataDir/step-history.csv при завершении JVM.
+ */
+public final class PerformanceBudgets {
+    private static final String DATA_DIR_PROPERTY = "config.dataDir";
+    private static final String DEFAULT_DATA_DIR = ".test-data";
+    private static final String HISTORY_FILE_NAME = "step-history.csv";
+    private static final String REGRESSION_ENABLED_PROPERTY = "regression.enabled";
+    private static final String BASELINE_RUNS_PROPERTY = "regression.baselineRuns";
+    private static final String ALPHA_PROPERTY = "regression.alpha";
+    private static final String MIN_SLOWDOWN_PROPERTY = "regression.minSlowdown";
+    private static final String FAIL_ON_REGRESSION_PROPERTY = "regression.fail";
+    private static final String BUDGET_PREFIX = "budget.";
+    private static final Pattern BUDGET_PROPERTY = Pattern.compile("budget\\.(\\w+)\\.p(\\d+(?:\\.\\d+)?)");
+    private static final int MIN_CURRENT_SAMPLES = 3;
+    private static final int MIN_BASELINE_SAMPLES = 5;
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final String runId = Instant.now().toString();
+    private static final StepHistory history = new StepHistory(
+            Path.of(Config.get(DATA_DIR_PROPERTY, DEFAULT_DATA_DIR), HISTORY_FILE_NAME));
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> history.append(runId, StepTimer.samples())));
+    }
+
+    private PerformanceBudgets() {
+    }
+
+    /**
+     * Проверяет замеры тестов класса на соответствие бюджетам и на замедление относительно истории.
+     *
+     * @param testClass простое имя класса тестов.
+     * @throws AssertionError если бюджет превышен или, при regression.fail=true, найдено замедление.
+     */
+    public static void verify(String testClass) {
+        Map<String, List<Long>> samplesByStep = StepTimer.samples(testClass);
+        List<String> violations = new ArrayList<>();
+        for (String key : Config.keys(BUDGET_PREFIX)) {
+            Matcher matcher = BUDGET_PROPERTY.matcher(key);
+            List<Long> samples = matcher.matches() ? samplesByStep.get(matcher.group(1)) : null;
+            if (samples == null) {
+                continue;
+            }
+            double percentile = Double.parseDouble(matcher.group(2));
+            long budget = Config.getLong(key, Long.MAX_VALUE);
+            long observed = percentile(samples, percentile);
+            logger.info("{}: step {} p{} = {} ms, budget {} ms", testClass, matcher.group(1), matcher.group(2),
+                    observed, budget);
+            if (observed > budget) {
+                violations.add("Step " + matcher.group(1) + " p" + matcher.group(2) + " is " + observed
+                        + " ms, budget is " + budget + " ms (" + samples.size() + " samples)");
+            }
+        }
+        if (Config.getBoolean(REGRESSION_ENABLED_PROPERTY, true)) {
+            samplesByStep.forEach((step, samples) -> detectRegression(step, samples, violations));
+        }
+        if (!violations.isEmpty()) {
+            throw new AssertionError(String.join(System.lineSeparator(), violations));
+        }
+    }
+
+    private static void detectRegression(String step, List<Long> samples, List<String> violations) {
+        List<Long> baseline = history.baseline(step, Config.getInt(BASELINE_RUNS_PROPERTY, 10));
+        if (samples.size() < MIN_CURRENT_SAMPLES || baseline.size() < MIN_BASELINE_SAMPLES) {
+            return;
+        }
+        double pValue = MannWhitneyTest.pValueGreater(samples, baseline);
+        double slowdown = (double) percentile(samples, 50) / Math.max(1, percentile(baseline, 50));
+        if (pValue >= Config.getDouble(ALPHA_PROPERTY, 0.01)
+                || slowdown < Config.getDouble(MIN_SLOWDOWN_PROPERTY, 1.1)) {
+            return;
+        }
+        String message = String.format("Step %s median is %.2f times slower than baseline of %d samples (p = %.4f)",
+                step, slowdown, baseline.size(), pValue);
+        logger.warn(message);
+        if (Config.getBoolean(FAIL_ON_REGRESSION_PROPERTY, false)) {
+            violations.add(message);
+        }
+    }
+
+    private static long percentile(List<Long> samples, double percentile) {
+        long[] values = samples.stream().mapToLong(Long::longValue).sorted().toArray();
+        int index = (int) Math.ceil(percentile / 100 * values.length) - 1;
+        return values[Math.max(0, Math.min(index, values.length - 1))];
+    }
+}
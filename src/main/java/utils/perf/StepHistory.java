@@ -0,0 +1,91 @@
+package utils.perf;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Локальная история длительностей шагов по запускам.
+ * Хранится в CSV файле со строками "запуск,шаг,миллисекунды", каждый запуск дописывает свои замеры в конец.
+ */
+final class StepHistory {
+    private static final String SEPARATOR = ",";
+    private static final String HEADER = "run,step,millis";
+    private static final Logger logger = LogManager.getLogger();
+
+    private final Path path;
+
+    StepHistory(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Возвращает замеры шага из последних запусков, в которых этот шаг выполнялся.
+     *
+     * @param step имя шага.
+     * @param runs число последних запусков.
+     * @return замеры в миллисекундах, пустой список, если истории нет.
+     */
+    List<Long> baseline(String step, int runs) {
+        Map<String, List<Long>> samplesByRun = new LinkedHashMap<>();
+        for (String[] row : rows()) {
+            if (row[1].equals(step)) {
+                samplesByRun.computeIfAbsent(row[0], key -> new ArrayList<>()).add(Long.parseLong(row[2]));
+            }
+        }
+        List<List<Long>> orderedRuns = new ArrayList<>(samplesByRun.values());
+        List<Long> baseline = new ArrayList<>();
+        orderedRuns.subList(Math.max(0, orderedRuns.size() - runs), orderedRuns.size()).forEach(baseline::addAll);
+        return baseline;
+    }
+
+    /**
+     * Дописывает замеры запуска в историю.
+     *
+     * @param run идентификатор запуска.
+     * @param samplesByStep замеры по именам шагов.
+     */
+    void append(String run, Map<String, List<Long>> samplesByStep) {
+        if (samplesByStep.isEmpty()) {
+            return;
+        }
+        StringBuilder lines = new StringBuilder();
+        if (!Files.exists(path)) {
+            lines.append(HEADER).append(System.lineSeparator());
+        }
+        samplesByStep.forEach((step, samples) -> samples.forEach(millis -> lines.append(run).append(SEPARATOR)
+                .append(step).append(SEPARATOR).append(millis).append(System.lineSeparator())));
+        try {
+            Files.createDirectories(path.getParent());
+            Files.writeString(path, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            logger.warn("Failed to append step history to {}", path, e);
+        }
+    }
+
+    private List<String[]> rows() {
+        if (!Files.exists(path)) {
+            return List.of();
+        }
+        try {
+            return Files.readAllLines(path, StandardCharsets.UTF_8).stream()
+                    .filter(line -> !line.equals(HEADER))
+                    .map(line -> line.split(SEPARATOR))
+                    .filter(row -> row.length == 3)
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read step history " + path, e);
+        }
+    }
+}
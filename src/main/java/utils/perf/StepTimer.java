@@ -0,0 +1,183 @@
+package utils.perf;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utils.TestContext;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Замер длительности шагов пользовательских сценариев, например "вход до авторизованной HomePage".
+ * Начало и конец шага отмечают объекты страниц в точках, где сценарий переходит между состояниями.
+ * Незавершённые шаги (например, неуспешный вход) не учитываются. Замеры текущего запуска
+ * хранятся в памяти и используются {@link PerformanceBudgets}, кроме того, каждое завершение шага
+ * передаётся подписчикам (например, генератору нагрузки). Замеры привязываются к классу теста, в котором
+ * выполнен шаг, чтобы бюджеты проверялись для каждого класса по его собственным замерам.
+ * Генератор нагрузки накапливает замеры сам, поэтому на время нагрузки хранение замеров выключается
+ * (см. {@link #setRecording}).
+ */
+public final class StepTimer {
+    /**
+     * Вход: от отправки формы входа до отображения имени пользователя на HomePage.
+     */
+    public static final String LOGIN_STEP = "login";
+    /**
+     * Восстановление пароля: от отправки запроса до отображения сообщения.
+     */
+    public static final String RECOVER_STEP = "recover";
+    /**
+     * Вход через HTTP клиент без браузера: от отправки запроса до ответа домашней страницы. Замеряется
+     * отдельно от {@link #LOGIN_STEP}, чтобы не смешивать с бюджетами и историей входа в браузере.
+     */
+    public static final String HTTP_LOGIN_STEP = "httpLogin";
+    /**
+     * Восстановление пароля через HTTP клиент без браузера.
+     */
+    public static final String HTTP_RECOVER_STEP = "httpRecover";
+
+    private static final ThreadLocal<Map<String, Long>> openSteps = ThreadLocal.withInitial(HashMap::new);
+    private static final Map<String, Map<String, List<Long>>> samplesByTestClass = new ConcurrentHashMap<>();
+    private static final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private static final Logger logger = LogManager.getLogger();
+    private static volatile boolean recording = true;
+
+    /**
+     * Подписчик на завершение шагов. Вызывается в потоке, выполнившем шаг.
+     */
+    public interface Listener {
+        /**
+         * @param step имя шага.
+         * @param elapsedMillis длительность шага.
+         * @param succeeded true, если шаг завершён успешно, false, если отменён.
+         */
+        void onStep(String step, long elapsedMillis, boolean succeeded);
+    }
+
+    private StepTimer() {
+    }
+
+    /**
+     * Подписывает на завершение шагов во всех потоках.
+     *
+     * @param listener подписчик.
+     */
+    public static void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Отменяет подписку на завершение шагов.
+     *
+     * @param listener подписчик.
+     */
+    public static void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Включает или выключает хранение замеров для {@link #samples()}. Подписчики уведомляются в любом случае.
+     *
+     * @param enabled false, чтобы не хранить замеры, например при длительной нагрузке.
+     */
+    public static void setRecording(boolean enabled) {
+        recording = enabled;
+    }
+
+    /**
+     * Отмечает начало шага в текущем потоке.
+     *
+     * @param step имя шага.
+     */
+    public static void start(String step) {
+        openSteps.get().put(step, System.nanoTime());
+    }
+
+    /**
+     * Отмечает успешное завершение шага и запоминает его длительность, если хранение замеров включено.
+     * Если шаг не был начат в текущем потоке, ничего не делает.
+     *
+     * @param step имя шага.
+     */
+    public static void stop(String step) {
+        Long startNanos = openSteps.get().remove(step);
+        if (startNanos == null) {
+            return;
+        }
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        if (recording) {
+            List<Long> samples = samplesByTestClass.computeIfAbsent(testClass(), key -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(step, key -> new ArrayList<>());
+            synchronized (samples) {
+                samples.add(elapsedMillis);
+            }
+            logger.info("step {} took {} ms", step, elapsedMillis);
+        }
+        listeners.forEach(listener -> listener.onStep(step, elapsedMillis, true));
+    }
+
+    /**
+     * Отменяет начатый шаг, например при неуспешном входе.
+     *
+     * @param step имя шага.
+     */
+    public static void cancel(String step) {
+        Long startNanos = openSteps.get().remove(step);
+        if (startNanos != null) {
+            long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+            listeners.forEach(listener -> listener.onStep(step, elapsedMillis, false));
+        }
+    }
+
+    /**
+     * Забывает незавершённые шаги текущего потока без уведомления подписчиков. Вызывается по окончании теста,
+     * чтобы шаг, начатый одним тестом, не был завершён следующим тестом в том же потоке.
+     */
+    public static void reset() {
+        openSteps.get().clear();
+    }
+
+    /**
+     * Возвращает длительности шагов, замеренные в текущем запуске.
+     *
+     * @return копия замеров по именам шагов, в миллисекундах.
+     */
+    public static Map<String, List<Long>> samples() {
+        Map<String, List<Long>> copy = new HashMap<>();
+        samplesByTestClass.values().forEach(samplesByStep -> copyTo(samplesByStep, copy));
+        return copy;
+    }
+
+    /**
+     * Возвращает длительности шагов, замеренные в тестах одного класса.
+     *
+     * @param testClass простое имя класса тестов.
+     * @return копия замеров по именам шагов, в миллисекундах.
+     */
+    public static Map<String, List<Long>> samples(String testClass) {
+        Map<String, List<Long>> copy = new HashMap<>();
+        copyTo(samplesByTestClass.getOrDefault(testClass, Map.of()), copy);
+        return copy;
+    }
+
+    private static void copyTo(Map<String, List<Long>> samplesByStep, Map<String, List<Long>> copy) {
+        samplesByStep.forEach((step, samples) -> {
+            synchronized (samples) {
+                copy.computeIfAbsent(step, key -> new ArrayList<>()).addAll(samples);
+            }
+        });
+    }
+
+    /**
+     * Класс теста, выполняемого в текущем потоке: часть идентификатора теста до имени метода.
+     */
+    private static String testClass() {
+        String testId = TestContext.currentTest();
+        int separator = testId.indexOf('.');
+        return separator < 0 ? testId : testId.substring(0, separator);
+    }
+}
@@ -0,0 +1,93 @@
+package utils.session;
+
+import org.openqa.selenium.Cookie;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Снимок состояния авторизованной сессии: cookies, localStorage и sessionStorage страницы.
+ * Хранится в виде простых коллекций, чтобы сериализоваться в JSON без дополнительных зависимостей.
+ *
+ * @param url адрес, на котором был сделан снимок.
+ * @param capturedAt время создания снимка.
+ * @param cookies cookies в виде словарей с полями {@link Cookie}.
+ * @param localStorage содержимое localStorage.
+ * @param sessionStorage содержимое sessionStorage.
+ */
+public record SessionSnapshot(String url,
+                              long capturedAt,
+                              List<Map<String, Object>> cookies,
+                              Map<String, String> localStorage,
+                              Map<String, String> sessionStorage) {
+
+    /**
+     * Создаёт снимок из текущих cookies и содержимого хранилищ браузера.
+     *
+     * @param url адрес страницы.
+     * @param cookies cookies браузера.
+     * @param localStorage содержимое localStorage.
+     * @param sessionStorage содержимое sessionStorage.
+     * @return новый снимок сессии.
+     */
+    public static SessionSnapshot of(String url, Iterable<Cookie> cookies, Map<String, String> localStorage,
+                                     Map<String, String> sessionStorage) {
+        List<Map<String, Object>> serializedCookies = new ArrayList<>();
+        for (Cookie cookie : cookies) {
+            Map<String, Object> serialized = new LinkedHashMap<>(cookie.toJson());
+            if (cookie.getExpiry() != null) {
+                serialized.put("expiry", cookie.getExpiry().getTime());
+            }
+            serializedCookies.add(serialized);
+        }
+        return new SessionSnapshot(url, System.currentTimeMillis(), serializedCookies, localStorage, sessionStorage);
+    }
+
+    /**
+     * Проверяет, устарел ли снимок: истёк срок жизни снимка, у одной из cookies истёк срок действия
+     * или снимок сделан для другого адреса.
+     *
+     * @param expectedUrl адрес, для которого нужна сессия.
+     * @param ttl максимальный возраст снимка.
+     * @return true, если снимок нельзя использовать.
+     */
+    public boolean isExpired(String expectedUrl, Duration ttl) {
+        Instant now = Instant.now();
+        if (!url.equals(expectedUrl) || Instant.ofEpochMilli(capturedAt).plus(ttl).isBefore(now)) {
+            return true;
+        }
+        return toCookies().stream()
+                .anyMatch(cookie -> cookie.getExpiry() != null && cookie.getExpiry().toInstant().isBefore(now));
+    }
+
+    /**
+     * Восстанавливает cookies Selenium из сохранённых словарей.
+     *
+     * @return список cookies.
+     */
+    public List<Cookie> toCookies() {
+        List<Cookie> result = new ArrayList<>();
+        for (Map<String, Object> cookie : cookies) {
+            Cookie.Builder builder = new Cookie.Builder((String) cookie.get("name"), (String) cookie.get("value"))
+                    .path((String) cookie.get("path"))
+                    .isSecure(Boolean.TRUE.equals(cookie.get("secure")))
+                    .isHttpOnly(Boolean.TRUE.equals(cookie.get("httpOnly")));
+            if (cookie.get("domain") != null) {
+                builder.domain((String) cookie.get("domain"));
+            }
+            if (cookie.get("expiry") instanceof Number expiry) {
+                builder.expiresOn(new Date(expiry.longValue()));
+            }
+            if (cookie.get("sameSite") != null) {
+                builder.sameSite((String) cookie.get("sameSite"));
+            }
+            result.add(builder.build());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,178 @@
+package utils.session;
+
+import com.codeborne.selenide.Selenide;
+import com.codeborne.selenide.WebDriverRunner;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.json.Json;
+import pages.BasePage;
+import pages.HomePage;
+import pages.LoginPage;
+import utils.Config;
+import utils.Credentials;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Хранилище снимков авторизованных сессий.
+ * Для каждого логина авторизация через форму выполняется один раз, после чего cookies и хранилища
+ * страницы сохраняются в файл и подставляются в новые браузеры. Устаревшие снимки пересоздаются
+ * автоматически.
+ */
+public final class SessionStore {
+    private static final String BASE_URL_PROPERTY = "web.url";
+    private static final String SESSION_DIR_PROPERTY = "session.dir";
+    private static final String SESSION_TTL_PROPERTY = "session.ttlMinutes";
+    private static final String DEFAULT_SESSION_DIR = "target/sessions";
+    private static final int DEFAULT_SESSION_TTL_MINUTES = 30;
+    private static final String SNAPSHOT_FILE_EXTENSION = ".json";
+    private static final String READ_STORAGE_SCRIPT =
+            "return {local: Object.assign({}, window.localStorage)," +
+            " session: Object.assign({}, window.sessionStorage)};";
+    private static final String WRITE_STORAGE_SCRIPT =
+            "Object.entries(arguments[0]).forEach(([k, v]) => window.localStorage.setItem(k, v));" +
+            "Object.entries(arguments[1]).forEach(([k, v]) => window.sessionStorage.setItem(k, v));";
+    private static final Logger logger = LogManager.getLogger();
+    private static final SessionStore sharedStore = new SessionStore();
+
+    private final Path directory = Path.of(Config.get(SESSION_DIR_PROPERTY, DEFAULT_SESSION_DIR));
+    private final Duration ttl = Duration.ofMinutes(Config.getInt(SESSION_TTL_PROPERTY, DEFAULT_SESSION_TTL_MINUTES));
+    private final String baseUrl = Config.get(BASE_URL_PROPERTY);
+    private final Map<String, SessionSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+    private final Json json = new Json();
+
+    private SessionStore() {
+    }
+
+    /**
+     * Возвращает общее для всех тестов хранилище сессий.
+     *
+     * @return хранилище сессий.
+     */
+    public static SessionStore shared() {
+        return sharedStore;
+    }
+
+    /**
+     * Открывает домашнюю страницу в текущем браузере под указанным пользователем, не проходя форму входа.
+     * Если сохранённого снимка нет, он устарел или не дал авторизации, выполняет вход через форму
+     * и сохраняет новый снимок.
+     *
+     * @param credentials учётные данные пользователя.
+     * @return экземпляр HomePage авторизованного пользователя.
+     */
+    public HomePage openAuthorized(Credentials credentials) {
+        synchronized (locks.computeIfAbsent(credentials.login(), login -> new Object())) {
+            SessionSnapshot snapshot = snapshots.computeIfAbsent(credentials.login(), this::load);
+            if (snapshot != null && !snapshot.isExpired(baseUrl, ttl)) {
+                restore(snapshot);
+                HomePage homePage = BasePage.page(HomePage.class);
+                if (homePage.isAuthorized()) {
+                    logger.info("session of {} restored from snapshot", credentials.login());
+                    return homePage;
+                }
+                logger.info("session snapshot of {} is no longer valid", credentials.login());
+            }
+            snapshots.put(credentials.login(), capture(credentials));
+            return BasePage.page(HomePage.class);
+        }
+    }
+
+    /**
+     * Выполняет вход через форму и сохраняет состояние сессии в файл.
+     *
+     * @param credentials учётные данные пользователя.
+     * @return новый снимок сессии.
+     */
+    private SessionSnapshot capture(Credentials credentials) {
+        WebDriver driver = WebDriverRunner.getWebDriver();
+        driver.manage().deleteAllCookies();
+        BasePage.open(baseUrl);
+        if (!BasePage.page(LoginPage.class).submit(credentials).isAuthorized()) {
+            throw new IllegalStateException("Failed to log in as " + credentials.login() + " to capture session");
+        }
+        Map<String, Map<String, String>> storage = Selenide.executeJavaScript(READ_STORAGE_SCRIPT);
+        SessionSnapshot snapshot = SessionSnapshot.of(baseUrl, driver.manage().getCookies(),
+                storage.get("local"), storage.get("session"));
+        save(credentials.login(), snapshot);
+        logger.info("session of {} captured", credentials.login());
+        return snapshot;
+    }
+
+    /**
+     * Подставляет cookies и содержимое хранилищ из снимка в текущий браузер и открывает базовый URL.
+     *
+     * @param snapshot снимок сессии.
+     */
+    private void restore(SessionSnapshot snapshot) {
+        WebDriver driver = WebDriverRunner.getWebDriver();
+        BasePage.open(baseUrl);
+        driver.manage().deleteAllCookies();
+        for (Cookie cookie : snapshot.toCookies()) {
+            try {
+                driver.manage().addCookie(cookie);
+            } catch (WebDriverException e) {
+                logger.warn("Failed to restore cookie {}", cookie.getName(), e);
+            }
+        }
+        Selenide.executeJavaScript(WRITE_STORAGE_SCRIPT, snapshot.localStorage(), snapshot.sessionStorage());
+        BasePage.open(baseUrl);
+    }
+
+    private Path snapshotPath(String login) {
+        return directory.resolve(login.replaceAll("[^A-Za-z0-9._-]", "_") + SNAPSHOT_FILE_EXTENSION);
+    }
+
+    private void save(String login, SessionSnapshot snapshot) {
+        Map<String, Object> serialized = new LinkedHashMap<>();
+        serialized.put("url", snapshot.url());
+        serialized.put("capturedAt", snapshot.capturedAt());
+        serialized.put("cookies", snapshot.cookies());
+        serialized.put("localStorage", snapshot.localStorage());
+        serialized.put("sessionStorage", snapshot.sessionStorage());
+        try {
+            Files.createDirectories(directory);
+            Files.writeString(snapshotPath(login), json.toJson(serialized), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.warn("Failed to save session snapshot of {}", login, e);
+        }
+    }
+
+    /**
+     * Загружает снимок сессии из файла.
+     *
+     * @param login логин пользователя.
+     * @return снимок сессии или null, если файла нет или его не удалось прочитать.
+     */
+    @SuppressWarnings("unchecked")
+    private SessionSnapshot load(String login) {
+        Path path = snapshotPath(login);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try {
+            Map<String, Object> serialized = json.toType(Files.readString(path, StandardCharsets.UTF_8),
+                    Json.MAP_TYPE);
+            return new SessionSnapshot((String) serialized.get("url"),
+                    ((Number) serialized.get("capturedAt")).longValue(),
+                    (List<Map<String, Object>>) serialized.get("cookies"),
+                    (Map<String, String>) serialized.get("localStorage"),
+                    (Map<String, String>) serialized.get("sessionStorage"));
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to read session snapshot {}", path, e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package utils.shard;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Фильтр JUnit, оставляющий в запуске только тесты части shard.index из shard.total (см. {@link ShardPlan}).
+ * Регистрируется через META-INF/services и ничего не делает, если shard.total не больше 1. Номер части вне
+ * [0, shard.total) прерывает поиск тестов ошибкой, а не запускает пустую или несуществующую часть.
+ * Распределение строится один раз по всему дереву найденных тестов, поэтому все тесты должны быть найдены
+ * одним запросом (так запускает surefire).
+ */
+public class ShardFilter implements PostDiscoveryFilter {
+    private static final Logger logger = LogManager.getLogger();
+
+    private TestDescriptor plannedRoot;
+    private ShardPlan plan;
+
+    @Override
+    public FilterResult apply(TestDescriptor descriptor) {
+        ShardPlan.validate();
+        Optional<MethodSource> source = methodSource(descriptor);
+        if (!ShardPlan.isSharded() || source.isEmpty() || methodSource(descriptor.getParent().orElse(null))
+                .isPresent()) {
+            return FilterResult.included("not a test method");
+        }
+        String className = source.get().getClassName();
+        return planFor(descriptor).includes(className, TestDurations.key(className, source.get().getMethodName()))
+                ? FilterResult.included("shard " + ShardPlan.index)
+                : FilterResult.excluded("other shard");
+    }
+
+    private synchronized ShardPlan planFor(TestDescriptor descriptor) {
+        TestDescriptor root = descriptor;
+        while (root.getParent().isPresent()) {
+            root = root.getParent().get();
+        }
+        if (root != plannedRoot) {
+            Map<String, List<String>> testsByClass = new TreeMap<>();
+            for (TestDescriptor candidate : root.getDescendants()) {
+                Optional<MethodSource> source = methodSource(candidate);
+                if (source.isPresent() && methodSource(candidate.getParent().orElse(null)).isEmpty()) {
+                    testsByClass.computeIfAbsent(source.get().getClassName(), key -> new ArrayList<>())
+                            .add(TestDurations.key(source.get().getClassName(), source.get().getMethodName()));
+                }
+            }
+            plan = ShardPlan.build(testsByClass, TestDurations.load());
+            plannedRoot = root;
+            logger.info("shard {} of {}: expected {} ms", ShardPlan.index, ShardPlan.total,
+                    plan.expectedLoad(ShardPlan.index));
+        }
+        return plan;
+    }
+
+    /**
+     * Источник дескриптора-метода: сам тест, фабрика динамических тестов или шаблон параметризованного теста.
+     */
+    private static Optional<MethodSource> methodSource(TestDescriptor descriptor) {
+        return Optional.ofNullable(descriptor)
+                .flatMap(TestDescriptor::getSource)
+                .filter(MethodSource.class::isInstance)
+                .map(MethodSource.class::cast);
+    }
+}
@@ -0,0 +1,164 @@
+package utils.shard;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.w3c.dom.Element;
+import utils.Config;
+import utils.CsvTable;
+import utils.ordering.TestOutcomeListener;
+import utils.ordering.TestOutcomes;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+/**
+ * Объединение результатов частей разбитого запуска. Части, выполненные на разных машинах, копируются
+ * в один каталог shard.dir (по умолчанию target/shards) как подкаталоги shard-&lt;номер&gt;. Отчёты surefire
+ * всех частей собираются в shard.dir/reports, замеры длительностей дописываются в историю
+ * {@link TestDurations} для распределения следующих запусков, результаты тестов - в историю {@link TestOutcomes}
+ * для их упорядочивания, в shard.dir/summary.txt записываются итоги
+ * по частям: число тестов и ошибок, ожидаемое и фактическое время.
+ * Завершается с кодом 1, если в какой-либо части есть упавшие тесты.
+ */
+public final class ShardMerge {
+    private static final String REPORTS_DIR = "reports";
+    private static final String SUMMARY_FILE = "summary.txt";
+    private static final String REPORT_PREFIX = "TEST-";
+    private static final String REPORT_EXTENSION = ".xml";
+    private static final Logger logger = LogManager.getLogger();
+
+    private ShardMerge() {
+    }
+
+    /**
+     * Объединяет результаты частей из shard.dir.
+     *
+     * @param args не используются.
+     */
+    public static void main(String[] args) throws IOException {
+        Path shardsDirectory = Path.of(Config.get(ShardPlan.DIR_PROPERTY, ShardPlan.DEFAULT_DIR));
+        Path reportsDirectory = shardsDirectory.resolve(REPORTS_DIR);
+        Files.createDirectories(reportsDirectory);
+        List<Path> shards;
+        try (Stream<Path> children = Files.list(shardsDirectory)) {
+            shards = children
+                    .filter(child -> Files.isDirectory(child)
+                            && child.getFileName().toString().startsWith(ShardPlan.SHARD_DIR_PREFIX))
+                    .sorted()
+                    .toList();
+        }
+        TestDurations history = TestDurations.load();
+        TestOutcomes outcomes = TestOutcomes.load();
+        StringBuilder summary = new StringBuilder();
+        long totalMillis = 0;
+        long longestMillis = 0;
+        int failed = 0;
+        for (Path shard : shards) {
+            ReportTotals totals = collectReports(shard, reportsDirectory);
+            long measuredMillis = 0;
+            Path durations = shard.resolve(TestDurationListener.DURATIONS_FILE);
+            if (Files.exists(durations)) {
+                for (Map<String, String> row : CsvTable.read(durations.toString())) {
+                    long millis = Long.parseLong(row.get("millis"));
+                    history.add(row.get("test"), millis);
+                    measuredMillis += millis;
+                }
+            }
+            Path shardOutcomes = shard.resolve(TestOutcomeListener.OUTCOMES_FILE);
+            if (Files.exists(shardOutcomes)) {
+                for (Map<String, String> row : CsvTable.read(shardOutcomes.toString())) {
+                    outcomes.add(row.get("test"), Boolean.parseBoolean(row.get("failed")));
+                }
+            }
+            Properties run = readRun(shard);
+            long wallMillis = Long.parseLong(run.getProperty(TestDurationListener.WALL_MILLIS, "0"));
+            totalMillis += wallMillis;
+            longestMillis = Math.max(longestMillis, wallMillis);
+            failed += totals.failures + totals.errors;
+            summary.append(String.format("%s: tests=%d failures=%d errors=%d skipped=%d expected=%s ms"
+                            + " tests time=%d ms wall=%d ms%n", shard.getFileName(), totals.tests, totals.failures,
+                    totals.errors, totals.skipped, run.getProperty(TestDurationListener.EXPECTED_MILLIS, "?"),
+                    measuredMillis, wallMillis));
+        }
+        summary.append(String.format("shards=%d wall sum=%d ms longest=%d ms failed=%d%n", shards.size(),
+                totalMillis, longestMillis, failed));
+        history.save();
+        outcomes.save();
+        Files.writeString(shardsDirectory.resolve(SUMMARY_FILE), summary, StandardCharsets.UTF_8);
+        logger.info("shard summary:{}{}", System.lineSeparator(), summary);
+        System.exit(failed > 0 ? 1 : 0);
+    }
+
+    /**
+     * Копирует отчёты surefire части в общий каталог, добавляя к имени номер части (один класс тестов может
+     * быть разделён между частями), и суммирует их итоги.
+     */
+    private static ReportTotals collectReports(Path shard, Path reportsDirectory) throws IOException {
+        ReportTotals totals = new ReportTotals();
+        List<Path> reports;
+        try (Stream<Path> children = Files.list(shard)) {
+            reports = children
+                    .filter(child -> child.getFileName().toString().startsWith(REPORT_PREFIX)
+                            && child.getFileName().toString().endsWith(REPORT_EXTENSION))
+                    .toList();
+        }
+        for (Path report : reports) {
+            String name = report.getFileName().toString();
+            Files.copy(report, reportsDirectory.resolve(name.substring(0, name.length() - REPORT_EXTENSION.length())
+                    + "-" + shard.getFileName() + REPORT_EXTENSION), StandardCopyOption.REPLACE_EXISTING);
+            totals.add(report);
+        }
+        return totals;
+    }
+
+    private static Properties readRun(Path shard) {
+        Properties run = new Properties();
+        Path path = shard.resolve(TestDurationListener.RUN_FILE);
+        if (Files.exists(path)) {
+            try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                run.load(reader);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read " + path, e);
+            }
+        }
+        return run;
+    }
+
+    /**
+     * Итоги отчётов surefire одной части.
+     */
+    private static final class ReportTotals {
+        private int tests;
+        private int failures;
+        private int errors;
+        private int skipped;
+
+        void add(Path report) {
+            try {
+                Element suite = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                        .parse(report.toFile()).getDocumentElement();
+                tests += count(suite, "tests");
+                failures += count(suite, "failures");
+                errors += count(suite, "errors");
+                skipped += count(suite, "skipped");
+            } catch (Exception e) {
+                logger.warn("Failed to read surefire report {}", report, e);
+            }
+        }
+
+        private static int count(Element suite, String attribute) {
+            String value = suite.getAttribute(attribute);
+            return value.isEmpty() ? 0 : Integer.parseInt(value);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package utils.shard;
+
+import utils.Config;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Распределение тестов по shard.total частям с близкой ожидаемой длительностью.
+ * Единица распределения - класс тестов; класс, который дольше средней доли части, делится по методам.
+ * Единицы раскладываются от самой длинной к самой короткой, каждая - в наименее загруженную часть
+ * (жадный алгоритм LPT). При равенстве длительностей порядок определяется именами, поэтому все части,
+ * запущенные с одной историей, получают одно и то же распределение.
+ */
+public final class ShardPlan {
+    static final String INDEX_PROPERTY = "shard.index";
+    static final String TOTAL_PROPERTY = "shard.total";
+    static final String DIR_PROPERTY = "shard.dir";
+    static final String DEFAULT_DIR = "target/shards";
+    static final String SHARD_DIR_PREFIX = "shard-";
+    private static final String DEFAULT_MILLIS_PROPERTY = "shard.defaultMillis";
+
+    static final int index = Config.getInt(INDEX_PROPERTY, 0);
+    static final int total = Config.getInt(TOTAL_PROPERTY, 1);
+    private static volatile ShardPlan current;
+
+    private final Map<String, Integer> shardByUnit = new HashMap<>();
+    private final long[] expectedLoad = new long[total];
+
+    private ShardPlan() {
+    }
+
+    /**
+     * @return true, если запуск разбит на части.
+     */
+    public static boolean isSharded() {
+        return total > 1;
+    }
+
+    /**
+     * Проверяет, что shard.total положительно, а shard.index - номер одной из частей.
+     *
+     * @throws IllegalArgumentException если номер части вне [0, shard.total).
+     */
+    static void validate() {
+        if (total < 1 || index < 0 || index >= total) {
+            throw new IllegalArgumentException("Invalid shard " + INDEX_PROPERTY + "=" + index + " "
+                    + TOTAL_PROPERTY + "=" + total + ": the index must be in [0, " + TOTAL_PROPERTY + ")");
+        }
+    }
+
+    /**
+     * @return каталог результатов текущей части.
+     */
+    public static Path shardDirectory() {
+        return Path.of(Config.get(DIR_PROPERTY, DEFAULT_DIR), SHARD_DIR_PREFIX + index);
+    }
+
+    /**
+     * @return распределение, построенное при последнем поиске тестов, или null.
+     */
+    static ShardPlan current() {
+        return current;
+    }
+
+    /**
+     * Строит распределение найденных тестов.
+     *
+     * @param testsByClass ключи тестов (см. {@link TestDurations#key}) по именам классов.
+     * @param durations история длительностей.
+     * @return распределение.
+     */
+    static ShardPlan build(Map<String, List<String>> testsByClass, TestDurations durations) {
+        long defaultMillis = durations.typical().orElse(Config.getLong(DEFAULT_MILLIS_PROPERTY, 10000));
+        Map<String, Long> expectedByTest = new HashMap<>();
+        testsByClass.values().forEach(tests -> tests.forEach(test ->
+                expectedByTest.put(test, durations.expected(test).orElse(defaultMillis))));
+        long share = expectedByTest.values().stream().mapToLong(Long::longValue).sum() / total;
+
+        Map<String, Long> expectedByUnit = new HashMap<>();
+        testsByClass.forEach((className, tests) -> {
+            long classMillis = tests.stream().mapToLong(expectedByTest::get).sum();
+            if (classMillis > share && tests.size() > 1) {
+                tests.forEach(test -> expectedByUnit.put(test, expectedByTest.get(test)));
+            } else {
+                expectedByUnit.put(className, classMillis);
+            }
+        });
+        List<Map.Entry<String, Long>> units = new ArrayList<>(expectedByUnit.entrySet());
+        units.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()));
+
+        ShardPlan plan = new ShardPlan();
+        for (Map.Entry<String, Long> unit : units) {
+            int lightest = 0;
+            for (int shard = 1; shard < total; shard++) {
+                if (plan.expectedLoad[shard] < plan.expectedLoad[lightest]) {
+                    lightest = shard;
+                }
+            }
+            plan.shardByUnit.put(unit.getKey(), lightest);
+            plan.expectedLoad[lightest] += unit.getValue();
+        }
+        current = plan;
+        return plan;
+    }
+
+    /**
+     * Проверяет, относится ли тест к текущей части. Тесты, не попавшие в распределение, выполняет часть 0.
+     *
+     * @param className имя класса теста.
+     * @param test ключ теста.
+     * @return true, если тест выполняется в текущей части.
+     */
+    boolean includes(String className, String test) {
+        Integer shard = shardByUnit.getOrDefault(test, shardByUnit.get(className));
+        return shard == null ? index == 0 : shard == index;
+    }
+
+    /**
+     * @param shard номер части.
+     * @return ожидаемая длительность части в миллисекундах.
+     */
+    long expectedLoad(int shard) {
+        return expectedLoad[shard];
+    }
+}
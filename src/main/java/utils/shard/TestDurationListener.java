@@ -0,0 +1,113 @@
+package utils.shard;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Слушатель JUnit, замеряющий длительность каждого теста (для фабрик динамических тестов и параметризованных
+ * тестов - всех их вызовов вместе). Регистрируется через META-INF/services.
+ * Обычный запуск дописывает замеры в историю {@link TestDurations}. Часть разбитого запуска историю не меняет,
+ * чтобы все части распределяли тесты по одной и той же истории, а записывает замеры и время части в
+ * shard.dir/shard-&lt;номер&gt;, откуда их забирает {@link ShardMerge}.
+ */
+public class TestDurationListener implements TestExecutionListener {
+    static final String DURATIONS_FILE = "durations.csv";
+    static final String DURATIONS_HEADER = "test,millis";
+    static final String RUN_FILE = "run.properties";
+    static final String WALL_MILLIS = "wallMillis";
+    static final String EXPECTED_MILLIS = "expectedMillis";
+    private static final Logger logger = LogManager.getLogger();
+
+    private final Map<String, Long> startNanos = new ConcurrentHashMap<>();
+    private final Map<String, Long> durations = new ConcurrentHashMap<>();
+    private TestPlan testPlan;
+    private long planStartNanos;
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan) {
+        this.testPlan = testPlan;
+        planStartNanos = System.nanoTime();
+        startNanos.clear();
+        durations.clear();
+    }
+
+    @Override
+    public void executionStarted(TestIdentifier testIdentifier) {
+        if (testKey(testIdentifier).isPresent()) {
+            startNanos.put(testIdentifier.getUniqueId(), System.nanoTime());
+        }
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+        Long start = startNanos.remove(testIdentifier.getUniqueId());
+        if (start != null) {
+            testKey(testIdentifier).ifPresent(test ->
+                    durations.merge(test, (System.nanoTime() - start) / 1_000_000, Long::sum));
+        }
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        if (durations.isEmpty()) {
+            return;
+        }
+        if (ShardPlan.isSharded()) {
+            writeShardResults((System.nanoTime() - planStartNanos) / 1_000_000);
+        } else {
+            TestDurations history = TestDurations.load();
+            durations.forEach(history::add);
+            history.save();
+        }
+    }
+
+    private void writeShardResults(long wallMillis) {
+        Path directory = ShardPlan.shardDirectory();
+        StringBuilder lines = new StringBuilder(DURATIONS_HEADER).append(System.lineSeparator());
+        new TreeMap<>(durations).forEach((test, millis) ->
+                lines.append(test).append(',').append(millis).append(System.lineSeparator()));
+        ShardPlan plan = ShardPlan.current();
+        String run = WALL_MILLIS + "=" + wallMillis + System.lineSeparator()
+                + EXPECTED_MILLIS + "=" + (plan == null ? 0 : plan.expectedLoad(ShardPlan.index))
+                + System.lineSeparator();
+        try {
+            Files.createDirectories(directory);
+            Files.writeString(directory.resolve(DURATIONS_FILE), lines, StandardCharsets.UTF_8);
+            Files.writeString(directory.resolve(RUN_FILE), run, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.warn("Failed to write shard durations to {}", directory, e);
+        }
+    }
+
+    /**
+     * Ключ теста, если идентификатор - метод теста, а не вызов параметризованного или динамического теста.
+     */
+    private Optional<String> testKey(TestIdentifier testIdentifier) {
+        Optional<MethodSource> source = methodSource(testIdentifier);
+        if (source.isEmpty()
+                || testPlan.getParent(testIdentifier).flatMap(TestDurationListener::methodSource).isPresent()) {
+            return Optional.empty();
+        }
+        return Optional.of(TestDurations.key(source.get().getClassName(), source.get().getMethodName()));
+    }
+
+    private static Optional<MethodSource> methodSource(TestIdentifier testIdentifier) {
+        return testIdentifier.getSource()
+                .filter(MethodSource.class::isInstance)
+                .map(MethodSource.class::cast);
+    }
+}
@@ -0,0 +1,140 @@
+package utils.shard;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utils.Config;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * История длительностей тестов по предыдущим запускам. Для каждого теста (класс#метод) хранятся последние
+ * замеры, ожидаемая длительность - их медиана. История хранится в файле в каталоге config.dataDir.
+ */
+public final class TestDurations {
+    private static final String DATA_DIR_PROPERTY = "config.dataDir";
+    private static final String DEFAULT_DATA_DIR = ".test-data";
+    private static final String FILE_NAME = "test-durations.properties";
+    private static final String SAMPLE_SEPARATOR = ",";
+    private static final int MAX_SAMPLES = 10;
+    private static final Logger logger = LogManager.getLogger();
+
+    private final Path path;
+    private final Map<String, List<Long>> samplesByTest = new TreeMap<>();
+
+    private TestDurations(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Загружает историю из config.dataDir.
+     *
+     * @return история, пустая, если файла нет или он не читается.
+     */
+    public static TestDurations load() {
+        TestDurations durations =
+                new TestDurations(Path.of(Config.get(DATA_DIR_PROPERTY, DEFAULT_DATA_DIR), FILE_NAME));
+        if (!Files.exists(durations.path)) {
+            return durations;
+        }
+        Properties stored = new Properties();
+        try (Reader reader = Files.newBufferedReader(durations.path, StandardCharsets.UTF_8)) {
+            stored.load(reader);
+        } catch (IOException e) {
+            logger.warn("Failed to read test durations from {}", durations.path, e);
+            return durations;
+        }
+        for (String test : stored.stringPropertyNames()) {
+            durations.samplesByTest.put(test, Arrays.stream(stored.getProperty(test).split(SAMPLE_SEPARATOR))
+                    .filter(value -> !value.isBlank())
+                    .map(Long::parseLong)
+                    .collect(Collectors.toCollection(ArrayList::new)));
+        }
+        return durations;
+    }
+
+    /**
+     * Ключ теста в истории.
+     *
+     * @param className полное имя класса теста.
+     * @param methodName имя метода теста.
+     * @return ключ вида класс#метод.
+     */
+    public static String key(String className, String methodName) {
+        return className + "#" + methodName;
+    }
+
+    /**
+     * Ожидаемая длительность теста: медиана последних замеров.
+     *
+     * @param test ключ теста (см. {@link #key}).
+     * @return длительность в миллисекундах, пусто, если тест ещё не выполнялся.
+     */
+    public OptionalLong expected(String test) {
+        List<Long> samples = samplesByTest.get(test);
+        if (samples == null || samples.isEmpty()) {
+            return OptionalLong.empty();
+        }
+        long[] sorted = samples.stream().mapToLong(Long::longValue).sorted().toArray();
+        return OptionalLong.of(sorted[sorted.length / 2]);
+    }
+
+    /**
+     * Медиана ожидаемых длительностей всех известных тестов, используется для тестов без истории.
+     *
+     * @return длительность в миллисекундах, пусто, если история пуста.
+     */
+    public OptionalLong typical() {
+        long[] expected = samplesByTest.keySet().stream()
+                .map(this::expected)
+                .filter(OptionalLong::isPresent)
+                .mapToLong(OptionalLong::getAsLong)
+                .sorted()
+                .toArray();
+        return expected.length == 0 ? OptionalLong.empty() : OptionalLong.of(expected[expected.length / 2]);
+    }
+
+    /**
+     * Добавляет замер теста, старые замеры сверх {@value #MAX_SAMPLES} забываются.
+     *
+     * @param test ключ теста.
+     * @param millis длительность теста.
+     */
+    public void add(String test, long millis) {
+        List<Long> samples = samplesByTest.computeIfAbsent(test, key -> new ArrayList<>());
+        samples.add(millis);
+        if (samples.size() > MAX_SAMPLES) {
+            samples.remove(0);
+        }
+    }
+
+    /**
+     * Сохраняет историю в config.dataDir.
+     */
+    public void save() {
+        Properties stored = new Properties();
+        samplesByTest.forEach((test, samples) -> stored.setProperty(test, samples.stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(SAMPLE_SEPARATOR))));
+        try {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                stored.store(writer, "Test durations, ms");
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to save test durations to {}", path, e);
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package utils.standin;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utils.Config;
+import utils.Credentials;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Локальная замена стенда Mirapolis для быстрых изолированных запусков.
+ * Отдаёт страницу входа, страницу восстановления пароля и домашнюю страницу с теми же классами элементов,
+ * что используют объекты страниц, и воспроизводит ответы стенда: оповещения о неверных данных,
+ * сообщения восстановления пароля, cookie сессии после успешного входа. Поддерживает искусственную
+ * задержку ответов.
+ */
+public final class MirapolisStandInServer {
+    private static final String ENABLED_PROPERTY = "standin.enabled";
+    private static final String PORT_PROPERTY = "standin.port";
+    private static final String LATENCY_PROPERTY = "standin.latencyMillis";
+    private static final String LATENCY_JITTER_PROPERTY = "standin.latencyJitterMillis";
+    private static final String BASE_URL_PROPERTY = "web.url";
+    private static final String USER_LOGIN_PROPERTY = "user.login";
+    private static final String USER_PASSWORD_PROPERTY = "user.password";
+    private static final String BASE_PATH = "/mira";
+    private static final String LOGIN_PATH = BASE_PATH + "/login";
+    private static final String RECOVER_PATH = BASE_PATH + "/recover";
+    private static final String SESSION_COOKIE = "MIRA_SESSION";
+    private static final String USER_FIELD = "user";
+    private static final String PASSWORD_FIELD = "password";
+    private static final String ALERT_EMPTY = "Неверные данные для авторизации.";
+    private static final String ALERT_WRONG = "Неверные данные для авторизации";
+    private static final String HIDDEN_STYLE = "display: none";
+    private static final String USER_FULL_NAME = "Фомина Елена";
+    private static final Logger logger = LogManager.getLogger();
+    private static final Map<String, String> templates = new ConcurrentHashMap<>();
+    private static volatile MirapolisStandInServer sharedServer;
+
+    private final Credentials user;
+    private final long latencyMillis;
+    private final long latencyJitterMillis;
+    private final Set<String> sessions = ConcurrentHashMap.newKeySet();
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    /**
+     * Создаёт сервер, принимающий указанного пользователя.
+     *
+     * @param port порт, 0 для выбора свободного порта.
+     * @param user учётные данные единственного существующего пользователя.
+     * @param latencyMillis задержка каждого ответа.
+     * @param latencyJitterMillis максимальная случайная добавка к задержке.
+     */
+    public MirapolisStandInServer(int port, Credentials user, long latencyMillis, long latencyJitterMillis) {
+        this.user = user;
+        this.latencyMillis = latencyMillis;
+        this.latencyJitterMillis = latencyJitterMillis;
+        try {
+            this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create stand-in server", e);
+        }
+        server.createContext(BASE_PATH, this::handle);
+        server.setExecutor(executor);
+    }
+
+    /**
+     * @return true, если включена настройка standin.enabled и тесты выполняются на локальной замене стенда.
+     */
+    public static boolean isEnabled() {
+        return Config.getBoolean(ENABLED_PROPERTY, false);
+    }
+
+    /**
+     * Если включена настройка standin.enabled, запускает общий сервер (один на JVM) и направляет
+     * на него web.url через системное свойство.
+     */
+    public static void startIfEnabled() {
+        if (!isEnabled() || sharedServer != null) {
+            return;
+        }
+        synchronized (MirapolisStandInServer.class) {
+            if (sharedServer == null) {
+                MirapolisStandInServer server = new MirapolisStandInServer(Config.getInt(PORT_PROPERTY, 0),
+                        new Credentials(Config.get(USER_LOGIN_PROPERTY), Config.get(USER_PASSWORD_PROPERTY)),
+                        Config.getLong(LATENCY_PROPERTY, 0), Config.getLong(LATENCY_JITTER_PROPERTY, 0));
+                server.start();
+                Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+                System.setProperty(BASE_URL_PROPERTY, server.baseUrl());
+                sharedServer = server;
+            }
+        }
+    }
+
+    /**
+     * Запускает сервер.
+     */
+    public void start() {
+        server.start();
+        logger.info("stand-in server started at {}", baseUrl());
+    }
+
+    /**
+     * Останавливает сервер.
+     */
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Возвращает адрес приложения на сервере, аналог web.url.
+     *
+     * @return базовый URL.
+     */
+    public String baseUrl() {
+        InetSocketAddress address = server.getAddress();
+        return "http://" + address.getHostString() + ":" + address.getPort() + BASE_PATH;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            injectLatency();
+            String path = exchange.getRequestURI().getPath();
+            boolean isPost = "POST".equalsIgnoreCase(exchange.getRequestMethod());
+            if (path.equals(LOGIN_PATH) && isPost) {
+                handleLogin(exchange);
+            } else if (path.equals(RECOVER_PATH)) {
+                handleRecover(exchange, isPost);
+            } else if (path.equals(BASE_PATH) || path.equals(BASE_PATH + "/")) {
+                if (sessions.contains(sessionOf(exchange))) {
+                    respond(exchange, 200, render("home.html", Map.of("userName", USER_FULL_NAME)));
+                } else {
+                    respond(exchange, 200, loginPage(""));
+                }
+            } else {
+                respond(exchange, 404, "");
+            }
+        } catch (RuntimeException e) {
+            logger.error("stand-in server failed to handle {}", exchange.getRequestURI(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * Проверяет логин и пароль. Пробелы по краям игнорируются, как на стенде. При успехе выдаёт cookie
+     * сессии и перенаправляет на домашнюю страницу, иначе возвращает страницу входа с оповещением.
+     */
+    private void handleLogin(HttpExchange exchange) throws IOException {
+        Map<String, String> form = readForm(exchange);
+        String login = form.getOrDefault(USER_FIELD, "").trim();
+        String password = form.getOrDefault(PASSWORD_FIELD, "").trim();
+        if (login.isEmpty() || password.isEmpty()) {
+            respond(exchange, 200, loginPage(ALERT_EMPTY));
+        } else if (login.equals(user.login()) && password.equals(user.password())) {
+            String session = UUID.randomUUID().toString();
+            sessions.add(session);
+            exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "=" + session + "; Path=" + BASE_PATH);
+            exchange.getResponseHeaders().add("Location", BASE_PATH);
+            respond(exchange, 303, "");
+        } else {
+            respond(exchange, 200, loginPage(ALERT_WRONG));
+        }
+    }
+
+    /**
+     * Страница восстановления пароля: при отправке показывает сообщение об успехе для существующего
+     * пользователя и предупреждение для несуществующего.
+     */
+    private void handleRecover(HttpExchange exchange, boolean isPost) throws IOException {
+        String alertStyle = HIDDEN_STYLE;
+        String successStyle = HIDDEN_STYLE;
+        if (isPost) {
+            String login = readForm(exchange).getOrDefault(USER_FIELD, "").trim();
+            if (login.equals(user.login())) {
+                successStyle = "";
+            } else {
+                alertStyle = "";
+            }
+        }
+        respond(exchange, 200, render("recover.html", Map.of("alertStyle", alertStyle,
+                "successStyle", successStyle)));
+    }
+
+    private String loginPage(String alertMessage) {
+        String alertScript = alertMessage.isEmpty() ? "" : "alert('" + alertMessage + "');";
+        return render("login.html", Map.of("alertScript", alertScript));
+    }
+
+    private String render(String template, Map<String, String> values) {
+        String html = readTemplate(template).replace("{{basePath}}", BASE_PATH);
+        for (Map.Entry<String, String> value : values.entrySet()) {
+            html = html.replace("{{" + value.getKey() + "}}", value.getValue());
+        }
+        return html;
+    }
+
+    private void injectLatency() {
+        long delay = latencyMillis + (latencyJitterMillis > 0
+                ? ThreadLocalRandom.current().nextLong(latencyJitterMillis + 1) : 0);
+        if (delay <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String sessionOf(HttpExchange exchange) {
+        for (String header : exchange.getRequestHeaders().getOrDefault("Cookie", List.of())) {
+            for (String cookie : header.split(";")) {
+                String[] parts = cookie.trim().split("=", 2);
+                if (parts.length == 2 && parts[0].equals(SESSION_COOKIE)) {
+                    return parts[1];
+                }
+            }
+        }
+        return "";
+    }
+
+    private static Map<String, String> readForm(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        Map<String, String> form = new HashMap<>();
+        for (String pair : body.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            String[] parts = pair.split("=", 2);
+            form.put(URLDecoder.decode(parts[0], StandardCharsets.UTF_8),
+                    parts.length > 1 ? URLDecoder.decode(parts[1], StandardCharsets.UTF_8) : "");
+        }
+        return form;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/html; charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(bytes);
+            }
+        }
+    }
+
+    private static String readTemplate(String name) {
+        return templates.computeIfAbsent(name, MirapolisStandInServer::loadTemplate);
+    }
+
+    private static String loadTemplate(String name) {
+        try (InputStream stream = MirapolisStandInServer.class.getResourceAsStream("/standin/" + name)) {
+            if (stream == null) {
+                throw new IllegalStateException("Stand-in template not found: " + name);
+            }
+            return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package utils.trace;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Буфер интервалов одного теста. Принадлежит потоку теста, поэтому обходится без синхронизации.
+ * Время хранится в наносекундах от общего для процесса начала отсчёта, чтобы трассировки тестов из разных
+ * потоков совмещались на одной шкале.
+ */
+final class TraceBuffer {
+    private static final long ORIGIN_NANOS = System.nanoTime();
+    private static final long PROCESS_ID = ProcessHandle.current().pid();
+    private static final String TRACE_FILE_EXTENSION = ".json";
+    private static final String COMMANDS_FILE_EXTENSION = ".commands.csv";
+    private static final String COMMANDS_HEADER = "category,name,count,totalMillis,selfMillis,meanMillis,maxMillis";
+    private static final Json json = new Json();
+
+    /**
+     * Закрытый интервал или мгновенное событие (durationNanos &lt; 0).
+     */
+    private record Event(String category, String name, String detail, long startNanos, long durationNanos,
+                         long selfNanos) {
+    }
+
+    private final String testId;
+    private final long threadId;
+    private final List<Event> events = new ArrayList<>();
+    private final Deque<Tracer.Span> openSpans = new ArrayDeque<>();
+
+    TraceBuffer(String testId, long threadId) {
+        this.testId = testId;
+        this.threadId = threadId;
+    }
+
+    String testId() {
+        return testId;
+    }
+
+    boolean isEmpty() {
+        return events.isEmpty();
+    }
+
+    Tracer.Span open(String category, String name, String detail) {
+        Tracer.Span span = new Tracer.Span(this, category, name, detail, System.nanoTime());
+        openSpans.push(span);
+        return span;
+    }
+
+    /**
+     * Закрывает интервал. Собственное время - длительность без вложенных интервалов, она добавляется
+     * к вложенному времени родителя.
+     */
+    void close(Tracer.Span span, long endNanos) {
+        if (!openSpans.remove(span)) {
+            return;
+        }
+        long durationNanos = endNanos - span.startNanos;
+        events.add(new Event(span.category, span.name, span.detail, span.startNanos, durationNanos,
+                durationNanos - span.childNanos));
+        Tracer.Span parent = openSpans.peek();
+        if (parent != null) {
+            parent.childNanos += durationNanos;
+        }
+    }
+
+    void instant(String category, String name, long timestampNanos) {
+        events.add(new Event(category, name, null, timestampNanos, -1, 0));
+    }
+
+    /**
+     * Записывает трассировку в формате Chrome trace и сводку по командам.
+     */
+    void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        List<Map<String, Object>> traceEvents = new ArrayList<>();
+        Map<String, Object> threadName = new LinkedHashMap<>();
+        threadName.put("name", "thread_name");
+        threadName.put("ph", "M");
+        threadName.put("pid", PROCESS_ID);
+        threadName.put("tid", threadId);
+        threadName.put("args", Map.of("name", testId));
+        traceEvents.add(threadName);
+        events.stream().sorted(Comparator.comparingLong(Event::startNanos)).forEach(event -> {
+            Map<String, Object> traceEvent = new LinkedHashMap<>();
+            traceEvent.put("name", event.name());
+            traceEvent.put("cat", event.category());
+            traceEvent.put("ph", event.durationNanos() < 0 ? "i" : "X");
+            traceEvent.put("ts", (event.startNanos() - ORIGIN_NANOS) / 1000.0);
+            if (event.durationNanos() >= 0) {
+                traceEvent.put("dur", event.durationNanos() / 1000.0);
+            } else {
+                traceEvent.put("s", "t");
+            }
+            traceEvent.put("pid", PROCESS_ID);
+            traceEvent.put("tid", threadId);
+            if (event.detail() != null) {
+                traceEvent.put("args", Map.of("detail", event.detail()));
+            }
+            traceEvents.add(traceEvent);
+        });
+        Map<String, Object> trace = new LinkedHashMap<>();
+        trace.put("traceEvents", traceEvents);
+        trace.put("displayTimeUnit", "ms");
+        trace.put("otherData", Map.of("test", testId));
+        try (Writer writer = Files.newBufferedWriter(directory.resolve(testId + TRACE_FILE_EXTENSION),
+                StandardCharsets.UTF_8); JsonOutput output = json.newOutput(writer)) {
+            output.setPrettyPrint(false).write(trace);
+        }
+        Files.writeString(directory.resolve(testId + COMMANDS_FILE_EXTENSION), commandSummary(),
+                StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Сводка по операциям: число вызовов, общее и собственное время, среднее и максимум в миллисекундах,
+     * по убыванию общего времени.
+     */
+    private String commandSummary() {
+        Map<String, long[]> totals = new HashMap<>();
+        for (Event event : events) {
+            if (event.durationNanos() < 0) {
+                continue;
+            }
+            long[] total = totals.computeIfAbsent(event.category() + "," + event.name(), key -> new long[4]);
+            total[0]++;
+            total[1] += event.durationNanos();
+            total[2] += event.selfNanos();
+            total[3] = Math.max(total[3], event.durationNanos());
+        }
+        StringBuilder summary = new StringBuilder(COMMANDS_HEADER).append(System.lineSeparator());
+        totals.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, long[]> entry) -> entry.getValue()[1]).reversed())
+                .forEach(entry -> {
+                    long[] total = entry.getValue();
+                    summary.append(String.format(Locale.ROOT, "%s,%d,%.3f,%.3f,%.3f,%.3f%n", entry.getKey(), total[0],
+                            total[1] / 1e6, total[2] / 1e6, total[1] / 1e6 / total[0], total[3] / 1e6));
+                });
+        return summary.toString();
+    }
+}
@@ -0,0 +1,141 @@
+package utils.trace;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import utils.Config;
+import utils.TestContext;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Трассировка времени теста: вложенные интервалы (spans) команд WebDriver, ожиданий и действий с элементами
+ * и переходов между страницами. Интервалы пишутся в буфер потока, выполняющего тест, без блокировок и
+ * по окончании теста выгружаются в target/trace/&lt;тест&gt;.json в формате Chrome trace (открывается в
+ * chrome://tracing и Perfetto), а сводка по командам - в &lt;тест&gt;.commands.csv: число вызовов, общее и
+ * собственное (без вложенных интервалов) время, среднее и максимум. Собственное время показывает, где тест
+ * проводит время: в обмене с WebDriver, в своих ожиданиях или в коде теста.
+ * Интервалы записываются только между {@link #start()} и {@link #finish()}, отключить: trace.enabled=false.
+ */
+public final class Tracer {
+    /**
+     * Категория команд WebDriver.
+     */
+    public static final String WEBDRIVER = "webdriver";
+    /**
+     * Категория действий с элементами.
+     */
+    public static final String ELEMENT = "element";
+    /**
+     * Категория ожиданий.
+     */
+    public static final String WAIT = "wait";
+    /**
+     * Категория переходов между страницами.
+     */
+    public static final String PAGE = "page";
+
+    private static final String ENABLED_PROPERTY = "trace.enabled";
+    private static final String RESULTS_DIR_PROPERTY = "trace.resultsDir";
+    private static final String DEFAULT_RESULTS_DIR = "target/trace";
+    private static final boolean enabled = Config.getBoolean(ENABLED_PROPERTY, true);
+    private static final Path resultsDirectory = Path.of(Config.get(RESULTS_DIR_PROPERTY, DEFAULT_RESULTS_DIR));
+    private static final ThreadLocal<TraceBuffer> buffers = new ThreadLocal<>();
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * Открытый интервал. Закрывается в том же потоке, обычно через try-with-resources.
+     */
+    public static final class Span implements AutoCloseable {
+        private static final Span NOOP = new Span(null, null, null, null, 0);
+
+        private final TraceBuffer buffer;
+        final String category;
+        final String name;
+        final String detail;
+        final long startNanos;
+        long childNanos;
+
+        Span(TraceBuffer buffer, String category, String name, String detail, long startNanos) {
+            this.buffer = buffer;
+            this.category = category;
+            this.name = name;
+            this.detail = detail;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public void close() {
+            if (buffer != null) {
+                buffer.close(this, System.nanoTime());
+            }
+        }
+    }
+
+    private Tracer() {
+    }
+
+    /**
+     * Оборачивает браузер слушателем, который записывает интервал каждой команды WebDriver.
+     * Возможности конкретного браузера (DevTools) следует настраивать до обёртывания.
+     *
+     * @param driver созданный браузер.
+     * @return браузер со слушателем или тот же браузер, если трассировка отключена.
+     */
+    public static WebDriver decorate(WebDriver driver) {
+        return enabled ? new EventFiringDecorator<>(new TracingListener()).decorate(driver) : driver;
+    }
+
+    /**
+     * Начинает запись интервалов текущего теста в текущем потоке.
+     */
+    public static void start() {
+        if (enabled) {
+            buffers.set(new TraceBuffer(TestContext.currentTest(), Thread.currentThread().threadId()));
+        }
+    }
+
+    /**
+     * Открывает интервал в текущем потоке.
+     *
+     * @param category категория, например {@link #ELEMENT}.
+     * @param name имя операции, по которому строится сводка.
+     * @param detail подробности (элемент, адрес) или null.
+     * @return открытый интервал, который нужно закрыть.
+     */
+    public static Span span(String category, String name, String detail) {
+        TraceBuffer buffer = buffers.get();
+        return buffer == null ? Span.NOOP : buffer.open(category, name, detail);
+    }
+
+    /**
+     * Отмечает мгновенное событие, например переход на страницу.
+     *
+     * @param category категория события.
+     * @param name имя события.
+     */
+    public static void instant(String category, String name) {
+        TraceBuffer buffer = buffers.get();
+        if (buffer != null) {
+            buffer.instant(category, name, System.nanoTime());
+        }
+    }
+
+    /**
+     * Завершает запись и выгружает трассировку и сводку по командам текущего теста.
+     */
+    public static void finish() {
+        TraceBuffer buffer = buffers.get();
+        buffers.remove();
+        if (buffer == null || buffer.isEmpty()) {
+            return;
+        }
+        try {
+            buffer.write(resultsDirectory);
+        } catch (IOException e) {
+            logger.warn("Failed to write trace of {}", buffer.testId(), e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package utils.trace;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Слушатель WebDriver, открывающий интервал на каждую команду браузера, элемента, навигации и т.п.
+ * Интервал называется по интерфейсу и методу (driver.findElement, element.click), аргумент поиска или
+ * перехода сохраняется в подробностях.
+ */
+final class TracingListener implements WebDriverListener {
+    private static final int MAX_DETAIL_LENGTH = 120;
+    private final ThreadLocal<Deque<Tracer.Span>> openCalls = ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        openCalls.get().push(Tracer.span(Tracer.WEBDRIVER, prefix(target) + method.getName(), detail(method, args)));
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        closeCall();
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        closeCall();
+    }
+
+    private void closeCall() {
+        Tracer.Span span = openCalls.get().poll();
+        if (span != null) {
+            span.close();
+        }
+    }
+
+    private static String prefix(Object target) {
+        if (target instanceof WebDriver) {
+            return "driver.";
+        }
+        if (target instanceof WebElement) {
+            return "element.";
+        }
+        return target.getClass().getSimpleName().toLowerCase() + ".";
+    }
+
+    /**
+     * Аргумент команд поиска и перехода. Тексты скриптов и вводимые значения не сохраняются.
+     */
+    private static String detail(Method method, Object[] args) {
+        if (args == null || args.length == 0 || args[0] == null) {
+            return null;
+        }
+        String name = method.getName();
+        if (!name.startsWith("find") && !name.equals("get") && !name.equals("to")) {
+            return null;
+        }
+        String detail = String.valueOf(args[0]);
+        return detail.length() > MAX_DETAIL_LENGTH ? detail.substring(0, MAX_DETAIL_LENGTH) : detail;
+    }
+}
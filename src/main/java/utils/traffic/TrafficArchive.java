@@ -0,0 +1,229 @@
+package utils.traffic;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Архив записанного HTTP трафика.
+ * Ответы дописываются в файл данных, а их расположение - в текстовый индекс с ключом
+ * "метод URL хеш-нормализованного-тела". Запись начинает архив заново и сохраняет только первый ответ
+ * на каждый ключ. При воспроизведении файл данных один раз отображается в память, индекс загружается
+ * в HashMap, и ответы читаются параллельно без блокировок и без копирования файла целиком.
+ * Размер файла данных ограничен 2 ГБ (размер одного отображения в память).
+ */
+public final class TrafficArchive {
+    private static final String DATA_FILE = "responses.bin";
+    private static final String INDEX_FILE = "index.tsv";
+    private static final String INDEX_SEPARATOR = "\t";
+    private static final long MAX_DATA_BYTES = Integer.MAX_VALUE;
+    private static final Logger logger = LogManager.getLogger();
+
+    private final Path dataPath;
+    private final Path indexPath;
+    private final Set<String> recordedKeys = new HashSet<>();
+    private long recordedBytes = -1;
+    private volatile Replay replay;
+
+    /**
+     * Загруженный для воспроизведения архив: индекс и отображённый в память файл данных. Не изменяется.
+     */
+    private record Replay(Map<String, long[]> index, MappedByteBuffer data) {
+    }
+
+    /**
+     * Записанный ответ.
+     *
+     * @param status код ответа.
+     * @param headers заголовки ответа в виде пар имя-значение.
+     * @param body тело ответа.
+     */
+    public record Response(int status, List<String[]> headers, byte[] body) {
+    }
+
+    /**
+     * Создаёт архив в указанном каталоге.
+     *
+     * @param directory каталог архива.
+     */
+    public TrafficArchive(Path directory) {
+        this.dataPath = directory.resolve(DATA_FILE);
+        this.indexPath = directory.resolve(INDEX_FILE);
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create traffic archive " + directory, e);
+        }
+    }
+
+    /**
+     * Вычисляет ключ запроса. Тело нормализуется: обрезаются пробелы, параметры формы сортируются,
+     * чтобы порядок полей не влиял на поиск.
+     *
+     * @param method HTTP метод.
+     * @param url полный URL запроса.
+     * @param body тело запроса.
+     * @return ключ запроса в архиве.
+     */
+    public static String key(String method, String url, String body) {
+        String normalized = body == null ? "" : body.trim();
+        if (!normalized.isEmpty() && !normalized.startsWith("{") && !normalized.startsWith("[")
+                && normalized.contains("=")) {
+            String[] parameters = normalized.split("&");
+            Arrays.sort(parameters);
+            normalized = String.join("&", parameters);
+        }
+        return method.toUpperCase() + " " + url + " " + sha256(normalized);
+    }
+
+    /**
+     * Дописывает ответ в архив. Первая запись удаляет архив предыдущей записи, повторный ответ на уже
+     * записанный ключ и ответ, с которым файл данных превысил бы 2 ГБ, не записываются.
+     *
+     * @param key ключ запроса.
+     * @param response ответ.
+     */
+    public synchronized void append(String key, Response response) {
+        if (recordedKeys.contains(key)) {
+            return;
+        }
+        try {
+            if (recordedBytes < 0) {
+                Files.deleteIfExists(dataPath);
+                Files.deleteIfExists(indexPath);
+                recordedBytes = 0;
+            }
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(response.body().length + 256);
+            try (DataOutputStream output = new DataOutputStream(buffer)) {
+                output.writeInt(response.status());
+                output.writeInt(response.headers().size());
+                for (String[] header : response.headers()) {
+                    writeString(output, header[0]);
+                    writeString(output, header[1]);
+                }
+                output.writeInt(response.body().length);
+                output.write(response.body());
+            }
+            if (recordedBytes + buffer.size() > MAX_DATA_BYTES) {
+                logger.warn("Traffic archive {} is full, response for {} is not recorded", dataPath, key);
+                return;
+            }
+            long offset = recordedBytes;
+            Files.write(dataPath, buffer.toByteArray(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            Files.writeString(indexPath, key + INDEX_SEPARATOR + offset + INDEX_SEPARATOR + buffer.size()
+                    + System.lineSeparator(), StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+            recordedKeys.add(key);
+            recordedBytes += buffer.size();
+        } catch (IOException e) {
+            logger.warn("Failed to record response for {}", key, e);
+        }
+    }
+
+    /**
+     * Ищет ответ в архиве. При первом обращении загружает индекс и отображает файл данных в память,
+     * далее поиск выполняется без блокировок.
+     *
+     * @param key ключ запроса.
+     * @return записанный ответ или null, если запрос не записан.
+     */
+    public Response find(String key) {
+        Replay loaded = replay();
+        long[] location = loaded.index().get(key);
+        if (location == null) {
+            return null;
+        }
+        ByteBuffer entry = loaded.data().duplicate()
+                .position(Math.toIntExact(location[0]))
+                .limit(Math.toIntExact(location[0] + location[1]));
+        int status = entry.getInt();
+        int headerCount = entry.getInt();
+        List<String[]> headers = new ArrayList<>(headerCount);
+        for (int i = 0; i < headerCount; i++) {
+            headers.add(new String[]{readString(entry), readString(entry)});
+        }
+        byte[] body = new byte[entry.getInt()];
+        entry.get(body);
+        return new Response(status, headers, body);
+    }
+
+    private Replay replay() {
+        Replay loaded = replay;
+        if (loaded == null) {
+            synchronized (this) {
+                loaded = replay;
+                if (loaded == null) {
+                    loaded = openForReplay();
+                    replay = loaded;
+                }
+            }
+        }
+        return loaded;
+    }
+
+    private Replay openForReplay() {
+        if (!Files.exists(dataPath) || !Files.exists(indexPath)) {
+            throw new IllegalStateException("Traffic archive is empty, record it first: " + dataPath.getParent());
+        }
+        try (FileChannel channel = FileChannel.open(dataPath, StandardOpenOption.READ)) {
+            if (channel.size() > MAX_DATA_BYTES) {
+                throw new IllegalStateException("Traffic archive " + dataPath
+                        + " is larger than 2 GB, record it again");
+            }
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            Map<String, long[]> index = new HashMap<>();
+            for (String line : Files.readAllLines(indexPath, StandardCharsets.UTF_8)) {
+                String[] parts = line.split(INDEX_SEPARATOR);
+                if (parts.length == 3) {
+                    index.putIfAbsent(parts[0], new long[]{Long.parseLong(parts[1]), Long.parseLong(parts[2])});
+                }
+            }
+            logger.info("traffic archive loaded: {} responses", index.size());
+            return new Replay(index, data);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open traffic archive " + dataPath, e);
+        }
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
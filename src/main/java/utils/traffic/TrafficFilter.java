@@ -0,0 +1,133 @@
+package utils.traffic;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpHandler;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import utils.Config;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Запись и воспроизведение HTTP трафика браузера.
+ * В режиме record все ответы сохраняются в {@link TrafficArchive}, в режиме replay браузер получает ответы
+ * только из архива. Запросы, которых нет в архиве, не отправляются на стенд, а записываются в файл
+ * missing.txt в каталоге архива и получают ответ 404, чтобы архив обновлялся осознанно.
+ * Тело ответа хранится уже распакованным, поэтому при воспроизведении заголовки сжатия и длины
+ * записанного ответа не передаются.
+ */
+public final class TrafficFilter {
+    private static final String MODE_PROPERTY = "traffic.mode";
+    private static final String DIR_PROPERTY = "traffic.dir";
+    private static final String DEFAULT_DIR = ".test-data/traffic";
+    private static final String MISSING_FILE = "missing.txt";
+    private static final int NOT_FOUND_STATUS = 404;
+    private static final Set<String> STALE_REPLAY_HEADERS =
+            Set.of("content-encoding", "content-length", "transfer-encoding");
+    private static final Logger logger = LogManager.getLogger();
+    private static volatile TrafficArchive sharedArchive;
+    private static final Set<String> reportedMissing = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Режим работы с трафиком.
+     */
+    public enum Mode {
+        OFF, RECORD, REPLAY
+    }
+
+    private TrafficFilter() {
+    }
+
+    /**
+     * Возвращает режим, заданный настройкой traffic.mode (off, record или replay).
+     *
+     * @return режим работы с трафиком.
+     */
+    public static Mode mode() {
+        return Mode.valueOf(Config.get(MODE_PROPERTY, Mode.OFF.name()).toUpperCase());
+    }
+
+    /**
+     * Создаёт фильтр запросов браузера для текущего режима.
+     *
+     * @return фильтр или null, если запись и воспроизведение выключены.
+     */
+    public static Filter create() {
+        return switch (mode()) {
+            case OFF -> null;
+            case RECORD -> next -> request -> record(next, request);
+            case REPLAY -> next -> TrafficFilter::replay;
+        };
+    }
+
+    private static TrafficArchive archive() {
+        if (sharedArchive == null) {
+            synchronized (TrafficFilter.class) {
+                if (sharedArchive == null) {
+                    sharedArchive = new TrafficArchive(archiveDirectory());
+                }
+            }
+        }
+        return sharedArchive;
+    }
+
+    private static Path archiveDirectory() {
+        return Path.of(Config.get(DIR_PROPERTY, DEFAULT_DIR));
+    }
+
+    private static HttpResponse record(HttpHandler next, HttpRequest request) {
+        String key = TrafficArchive.key(request.getMethod().toString(), request.getUri(), Contents.string(request));
+        HttpResponse response = next.execute(request);
+        byte[] body = Contents.bytes(response.getContent());
+        List<String[]> headers = new ArrayList<>();
+        for (String name : response.getHeaderNames()) {
+            for (String value : response.getHeaders(name)) {
+                headers.add(new String[]{name, value});
+            }
+        }
+        archive().append(key, new TrafficArchive.Response(response.getStatus(), headers, body));
+        response.setContent(Contents.bytes(body));
+        return response;
+    }
+
+    private static HttpResponse replay(HttpRequest request) {
+        String key = TrafficArchive.key(request.getMethod().toString(), request.getUri(), Contents.string(request));
+        TrafficArchive.Response recorded = archive().find(key);
+        if (recorded == null) {
+            reportMissing(request.getMethod() + " " + request.getUri());
+            return new HttpResponse().setStatus(NOT_FOUND_STATUS);
+        }
+        HttpResponse response = new HttpResponse().setStatus(recorded.status());
+        for (String[] header : recorded.headers()) {
+            if (!STALE_REPLAY_HEADERS.contains(header[0].toLowerCase())) {
+                response.addHeader(header[0], header[1]);
+            }
+        }
+        response.setContent(Contents.bytes(recorded.body()));
+        return response;
+    }
+
+    private static void reportMissing(String request) {
+        if (!reportedMissing.add(request)) {
+            return;
+        }
+        logger.warn("request is not in traffic archive, not forwarded: {}", request);
+        try {
+            Files.writeString(archiveDirectory().resolve(MISSING_FILE), request + System.lineSeparator(),
+                    StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            logger.warn("Failed to report missing request {}", request, e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Перехват оповещений страницы без модальных окон. Устанавливается в каждый новый документ до скриптов
+ * страницы (Page.addScriptToEvaluateOnNewDocument). alert и confirm не показывают окно, а записывают
+ * сообщение в очередь (confirm считается подтверждённым). Очередь хранится в sessionStorage, поэтому
+ * оповещение, показанное страницей перед переходом, доступно и в следующем документе того же сайта.
+ * О каждом новом сообщении сообщается событием mirapolis-alert.
+ */
+(function () {
+    if (window.__mirapolisAlertHook) {
+        return;
+    }
+    var KEY = 'mirapolis.alerts';
+    var memoryQueue = [];
+
+    function load() {
+        try {
+            return JSON.parse(window.sessionStorage.getItem(KEY) || '[]');
+        } catch (e) {
+            return memoryQueue;
+        }
+    }
+
+    function save(queue) {
+        try {
+            window.sessionStorage.setItem(KEY, JSON.stringify(queue));
+        } catch (e) {
+            memoryQueue = queue;
+        }
+    }
+
+    function record(type, message) {
+        var queue = load();
+        queue.push({type: type, message: message === undefined ? '' : String(message), time: Date.now()});
+        save(queue);
+        window.dispatchEvent(new Event('mirapolis-alert'));
+    }
+
+    window.__mirapolisAlertHook = {
+        take: function () {
+            var queue = load();
+            var first = queue.shift() || null;
+            save(queue);
+            return first;
+        },
+        clear: function () {
+            save([]);
+        }
+    };
+    window.alert = function (message) {
+        record('alert', message);
+    };
+    window.confirm = function (message) {
+        record('confirm', message);
+        return true;
+    };
+})();
@@ -0,0 +1,34 @@
+/*
+ * Чтение перехваченного оповещения (см. alert-hook.js) одним асинхронным вызовом.
+ * arguments[0] - время ожидания в миллисекундах, последний аргумент - callback WebDriver.
+ * Возвращает первое сообщение очереди {type, message, time}, null, если за время ожидания оповещений
+ * не было, и {hooked: false}, если перехват в документе не установлен.
+ */
+var timeout = arguments[0];
+var done = arguments[arguments.length - 1];
+var hook = window.__mirapolisAlertHook;
+if (!hook) {
+    done({hooked: false});
+    return;
+}
+var first = hook.take();
+if (first) {
+    done(first);
+    return;
+}
+var timer = null;
+
+function onAlert() {
+    var alert = hook.take();
+    if (alert) {
+        clearTimeout(timer);
+        window.removeEventListener('mirapolis-alert', onAlert);
+        done(alert);
+    }
+}
+
+window.addEventListener('mirapolis-alert', onAlert);
+timer = setTimeout(function () {
+    window.removeEventListener('mirapolis-alert', onAlert);
+    done(hook.take());
+}, timeout);
@@ -0,0 +1,45 @@
+/*
+ * Заполнение и отправка формы за один вызов WebDriver.
+ * arguments[0] - массив селекторов полей ввода, arguments[1] - массив значений, arguments[2] - селектор кнопки
+ * отправки. Селектор - CSS селектор или XPath (XPath начинается с / или ().
+ * Значения устанавливаются через нативный setter, чтобы их увидели обработчики фреймворков приложения,
+ * после чего для каждого поля отправляются события input и change. Нажатие кнопки откладывается
+ * на следующую задачу, чтобы оповещение, открытое приложением, не прервало ответ скрипта.
+ * Возвращает селекторы элементов, которые не удалось найти.
+ */
+var inputSelectors = arguments[0];
+var values = arguments[1];
+var submitSelector = arguments[2];
+var missing = [];
+
+function find(selector) {
+    if (selector.charAt(0) === '/' || selector.charAt(0) === '(') {
+        return document.evaluate(selector, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null)
+            .singleNodeValue;
+    }
+    return document.querySelector(selector);
+}
+
+var valueSetter = Object.getOwnPropertyDescriptor(HTMLInputElement.prototype, 'value').set;
+inputSelectors.forEach(function (selector, index) {
+    var input = find(selector);
+    if (!input) {
+        missing.push(selector);
+        return;
+    }
+    input.focus();
+    valueSetter.call(input, values[index]);
+    input.dispatchEvent(new Event('input', {bubbles: true}));
+    input.dispatchEvent(new Event('change', {bubbles: true}));
+});
+
+var submitButton = find(submitSelector);
+if (!submitButton) {
+    missing.push(submitSelector);
+}
+if (missing.length === 0) {
+    setTimeout(function () {
+        submitButton.click();
+    }, 0);
+}
+return missing;
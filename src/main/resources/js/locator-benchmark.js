@@ -0,0 +1,34 @@
+/*
+ * Замер стоимости поиска элемента внутри страницы, без учёта обмена с WebDriver.
+ * arguments[0] - CSS селектор или XPath (начинается с / или (), arguments[1] - CSS селектор корневого
+ * контейнера или null, arguments[2] - число повторов. Возвращает среднее время одного поиска в микросекундах
+ * по всему документу и внутри контейнера (контейнер находится один раз, как при кешировании его элемента).
+ */
+var selector = arguments[0];
+var rootSelector = arguments[1];
+var iterations = arguments[2];
+var isXpath = selector.charAt(0) === '/' || selector.charAt(0) === '(';
+
+function find(context) {
+    if (isXpath) {
+        return document.evaluate(selector, context, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null)
+            .singleNodeValue;
+    }
+    return context.querySelector(selector);
+}
+
+function measure(context) {
+    var found = null;
+    var start = performance.now();
+    for (var i = 0; i < iterations; i++) {
+        found = find(context);
+    }
+    var micros = (performance.now() - start) * 1000 / iterations;
+    return found ? micros : -1;
+}
+
+var result = {document: measure(document), scoped: null};
+if (rootSelector && !isXpath) {
+    result.scoped = measure(document.querySelector(rootSelector));
+}
+return result;
@@ -0,0 +1,34 @@
+/*
+ * Состояние нескольких элементов страницы за один вызов WebDriver.
+ * arguments[0] - массив CSS селекторов или XPath выражений (XPath начинается с / или (). Для каждого возвращает присутствие в DOM, видимость,
+ * видимый текст и значение поля ввода.
+ */
+function find(selector) {
+    if (selector.charAt(0) === '/' || selector.charAt(0) === '(') {
+        return document.evaluate(selector, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null)
+            .singleNodeValue;
+    }
+    return document.querySelector(selector);
+}
+
+function isVisible(element) {
+    if (!element.isConnected || element.getClientRects().length === 0) {
+        return false;
+    }
+    var rect = element.getBoundingClientRect();
+    var style = window.getComputedStyle(element);
+    return rect.width > 0 && rect.height > 0 && style.visibility !== 'hidden' && style.opacity !== '0';
+}
+
+return arguments[0].map(function (selector) {
+    var element = find(selector);
+    if (!element) {
+        return {present: false, visible: false, text: '', value: null};
+    }
+    return {
+        present: true,
+        visible: isVisible(element),
+        text: (element.innerText || '').trim(),
+        value: 'value' in element ? String(element.value) : null
+    };
+});
@@ -0,0 +1,37 @@
+/*
+ * Синтетический DOM для замера стоимости поиска элементов.
+ * arguments[0] - число элементов-помех. Помехи - вложенные div, input и button со случайными классами
+ * в стиле Mirapolis. В конце документа создаётся корневой контейнер страницы #page-root с формой входа
+ * из тех же классов, что используют объекты страниц.
+ */
+var count = arguments[0];
+var tags = ['div', 'span', 'input', 'button', 'a'];
+var classes = ['mira-widget', 'mira-grid-cell', 'mira-default-login-page-text', 'mira-widget-login',
+    'mira-page', 'alert-info', 'avatar', 'mira-default-login-page-link-item'];
+document.body.innerHTML = '';
+var parent = document.body;
+for (var i = 0; i < count; i++) {
+    var element = document.createElement(tags[i % tags.length]);
+    element.className = classes[i % classes.length] + ' ' + classes[(i * 7) % classes.length] + '-' + (i % 13);
+    if (element.tagName === 'INPUT') {
+        element.name = 'field' + (i % 17);
+    }
+    if (i % 10 === 0) {
+        var container = document.createElement('div');
+        container.className = 'mira-container';
+        document.body.appendChild(container);
+        parent = container;
+    }
+    parent.appendChild(element);
+}
+var root = document.createElement('div');
+root.id = 'page-root';
+root.innerHTML =
+    '<form class="mira-default-login-page-form">' +
+    '<input class="mira-widget-login-input mira-default-login-page-text-input" name="user">' +
+    '<input class="mira-widget-login-input mira-default-login-page-text-input" name="password" type="password">' +
+    '<button class="mira-widget-login-button mira-default-login-page-button-submit">Войти</button>' +
+    '</form>' +
+    '<div class="avatar-full-name">Пользователь</div>';
+document.body.appendChild(root);
+return document.getElementsByTagName('*').length;
@@ -0,0 +1,89 @@
+/*
+ * Ожидание видимости элемента без опроса из теста.
+ * arguments[0] - CSS селектор или XPath элемента, arguments[1] - таймаут в миллисекундах, последний аргумент - callback WebDriver.
+ * Проверка выполняется сразу и затем при каждом изменении DOM (MutationObserver), изменении пересечения
+ * элемента с окном (IntersectionObserver) и окончании CSS-переходов. Возвращает элемент, если он
+ * стал видимым, и false по истечении таймаута.
+ */
+var selector = arguments[0];
+var timeout = arguments[1];
+var done = arguments[arguments.length - 1];
+var finished = false;
+var scheduled = false;
+var mutationObserver = null;
+var intersectionObserver = null;
+var observedElement = null;
+var timer = null;
+
+function find(selector) {
+    if (selector.charAt(0) === '/' || selector.charAt(0) === '(') {
+        return document.evaluate(selector, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null)
+            .singleNodeValue;
+    }
+    return document.querySelector(selector);
+}
+
+function isVisible(element) {
+    if (!element || !element.isConnected || element.getClientRects().length === 0) {
+        return false;
+    }
+    var rect = element.getBoundingClientRect();
+    var style = window.getComputedStyle(element);
+    return rect.width > 0 && rect.height > 0 && style.visibility !== 'hidden' && style.opacity !== '0';
+}
+
+function finish(result) {
+    if (finished) {
+        return;
+    }
+    finished = true;
+    if (mutationObserver) {
+        mutationObserver.disconnect();
+    }
+    if (intersectionObserver) {
+        intersectionObserver.disconnect();
+    }
+    document.removeEventListener('transitionend', schedule, true);
+    document.removeEventListener('animationend', schedule, true);
+    clearTimeout(timer);
+    done(result);
+}
+
+function check() {
+    scheduled = false;
+    if (finished) {
+        return;
+    }
+    var element = find(selector);
+    if (isVisible(element)) {
+        finish(element);
+        return;
+    }
+    if (element && element !== observedElement && window.IntersectionObserver) {
+        if (!intersectionObserver) {
+            intersectionObserver = new IntersectionObserver(schedule);
+        }
+        intersectionObserver.disconnect();
+        intersectionObserver.observe(element);
+        observedElement = element;
+    }
+}
+
+function schedule() {
+    if (!scheduled) {
+        scheduled = true;
+        Promise.resolve().then(check);
+    }
+}
+
+check();
+if (!finished) {
+    mutationObserver = new MutationObserver(schedule);
+    mutationObserver.observe(document.documentElement, {childList: true, subtree: true, attributes: true});
+    document.addEventListener('transitionend', schedule, true);
+    document.addEventListener('animationend', schedule, true);
+    timer = setTimeout(function () {
+        check();
+        finish(false);
+    }, timeout);
+}
@@ -0,0 +1,78 @@
+/*
+ * Сбор Navigation Timing, Resource Timing и Web Vitals текущего документа.
+ * При первом вызове на документе устанавливает PerformanceObserver'ы (buffered, поэтому учитываются и
+ * события, произошедшие до установки), затем на следующей задаче возвращает накопленные значения.
+ * INP оценивается как наибольшая длительность взаимодействия.
+ */
+var done = arguments[arguments.length - 1];
+var state = window.__miraVitals;
+if (!state) {
+    state = window.__miraVitals = {fcp: null, lcp: null, cls: 0, inp: null};
+    var observe = function (type, callback, options) {
+        try {
+            new PerformanceObserver(function (list) {
+                list.getEntries().forEach(callback);
+            }).observe(Object.assign({type: type, buffered: true}, options || {}));
+        } catch (e) {
+            // тип записей не поддерживается браузером
+        }
+    };
+    observe('paint', function (entry) {
+        if (entry.name === 'first-contentful-paint') {
+            state.fcp = entry.startTime;
+        }
+    });
+    observe('largest-contentful-paint', function (entry) {
+        state.lcp = entry.startTime;
+    });
+    observe('layout-shift', function (entry) {
+        if (!entry.hadRecentInput) {
+            state.cls += entry.value;
+        }
+    });
+    observe('event', function (entry) {
+        if (entry.interactionId) {
+            state.inp = Math.max(state.inp || 0, entry.duration);
+        }
+    }, {durationThreshold: 16});
+}
+
+function round(value) {
+    return value === null || value === undefined ? null : Math.round(value * 10) / 10;
+}
+
+setTimeout(function () {
+    var navigation = performance.getEntriesByType('navigation')[0];
+    var resources = performance.getEntriesByType('resource');
+    var transferSize = 0;
+    resources.forEach(function (resource) {
+        transferSize += resource.transferSize || 0;
+    });
+    var slowest = resources.slice().sort(function (a, b) {
+        return b.duration - a.duration;
+    }).slice(0, 5).map(function (resource) {
+        return {name: resource.name, duration: round(resource.duration)};
+    });
+    done({
+        url: location.href,
+        timeOrigin: Math.round(performance.timeOrigin),
+        navigation: navigation ? {
+            type: navigation.type,
+            dns: round(navigation.domainLookupEnd - navigation.domainLookupStart),
+            connect: round(navigation.connectEnd - navigation.connectStart),
+            request: round(navigation.responseStart - navigation.requestStart),
+            response: round(navigation.responseEnd - navigation.responseStart),
+            domContentLoaded: round(navigation.domContentLoadedEventEnd),
+            load: round(navigation.loadEventEnd),
+            transferSize: navigation.transferSize
+        } : null,
+        vitals: {
+            ttfb: navigation ? round(navigation.responseStart) : null,
+            fcp: round(state.fcp),
+            lcp: round(state.lcp),
+            cls: Math.round(state.cls * 10000) / 10000,
+            inp: round(state.inp)
+        },
+        resources: {count: resources.length, transferSize: transferSize, slowest: slowest}
+    });
+}, 0);